@@ -2,8 +2,11 @@ package com.bookapp.controller;
 
 import com.bookapp.dto.ApiResponse;
 import com.bookapp.dto.AuthorResponseDto;
-import com.bookapp.model.Author;
-import com.bookapp.service.AuthorService;
+import com.bookapp.dto.PageResponseDto;
+import com.bookapp.service.AuthorServiceEnhanced;
+import com.bookapp.service.CatalogVersions;
+import com.bookapp.util.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,46 +14,77 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/authors")
 @Tag(name = "Authors", description = "Author management API")
 public class AuthorController {
     
-    private final AuthorService authorService;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    
+    private final AuthorServiceEnhanced authorService;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersions catalogVersions;
+    private final String authorCacheControl;
+    private final String listingCacheControl;
     
     @Autowired
-    public AuthorController(AuthorService authorService) {
+    public AuthorController(AuthorServiceEnhanced authorService, ObjectMapper objectMapper,
+                            CatalogVersions catalogVersions,
+                            @Value("${http.cache-control.author:max-age=300}") String authorCacheControl,
+                            @Value("${http.cache-control.author-listings:no-cache}") String listingCacheControl) {
         this.authorService = authorService;
+        this.objectMapper = objectMapper;
+        this.catalogVersions = catalogVersions;
+        this.authorCacheControl = authorCacheControl;
+        this.listingCacheControl = listingCacheControl;
     }
     
     @Operation(
-        summary = "Get all authors",
-        description = "Retrieve all authors stored in the database"
+        summary = "Get authors",
+        description = "Retrieve authors stored in the database, one keyset page at a time ordered by ID"
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "200", 
             description = "Authors retrieved successfully",
             content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400", 
+            description = "Invalid page size",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
         )
     })
     @GetMapping
-    public ResponseEntity<ApiResponse<List<AuthorResponseDto>>> getAllAuthors() {
+    public ResponseEntity<ApiResponse<PageResponseDto<AuthorResponseDto>>> getAllAuthors(
+            @Parameter(description = "Return authors with ID greater than this cursor", example = "0")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size (1-" + MAX_PAGE_SIZE + ")", example = "50")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        
         try {
-            List<Author> authors = authorService.getAllAuthors();
-            List<AuthorResponseDto> authorDtos = authors.stream()
-                .map(AuthorResponseDto::fromEntity)
-                .collect(Collectors.toList());
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Invalid limit: " + limit));
+            }
+            
+            List<AuthorResponseDto> authorDtos = authorService.getAuthorsPage(after, limit);
             
             return ResponseEntity.ok(
-                ApiResponse.success("Authors retrieved successfully", authorDtos)
+                ApiResponse.success("Authors retrieved successfully",
+                    PageResponseDto.of(authorDtos, limit, AuthorResponseDto::getId))
             );
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -58,6 +92,29 @@ public class AuthorController {
         }
     }
     
+    @Operation(
+        summary = "Export authors",
+        description = "Stream every author stored in the database as newline-delimited JSON, one author per line ordered by ID. Selected with Accept: application/x-ndjson"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Authors streamed successfully",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)
+        )
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAuthors() {
+        StreamingResponseBody body = out -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+                authorService.exportAuthors(writer::write);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+    
     @Operation(
         summary = "Get authors by year",
         description = "Retrieve all authors who were alive in a specific year"
@@ -72,37 +129,94 @@ public class AuthorController {
             responseCode = "400", 
             description = "Invalid year",
             content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "304", 
+            description = "Not modified since the version named by If-None-Match"
         )
     })
     @GetMapping("/year/{year}")
     public ResponseEntity<ApiResponse<List<AuthorResponseDto>>> getAuthorsByYear(
             @Parameter(description = "Year to search for authors", example = "1800")
-            @PathVariable Integer year) {
+            @PathVariable Integer year,
+            ServletWebRequest webRequest) {
         
         try {
             if (year < 0 || year > 2024) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error("Invalid year: " + year));
             }
+            if (ConditionalRequests.notModified(webRequest, catalogVersions.authors(), listingCacheControl)) {
+                return null;
+            }
             
-            List<Author> authors = authorService.getAuthorsByYear(year);
-            List<AuthorResponseDto> authorDtos = authors.stream()
-                .map(AuthorResponseDto::fromEntity)
-                .collect(Collectors.toList());
+            List<AuthorResponseDto> authorDtos = authorService.getAuthorsByYear(year);
             
-            String message = authors.isEmpty() 
+            String message = authorDtos.isEmpty() 
                 ? "No authors found who were alive in year: " + year
                 : "Authors retrieved successfully for year: " + year;
             
-            return ResponseEntity.ok(
-                ApiResponse.success(message, authorDtos)
-            );
+            return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, listingCacheControl)
+                .body(ApiResponse.success(message, authorDtos));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ApiResponse.error("Error retrieving authors by year: " + e.getMessage()));
         }
     }
     
+    @Operation(
+        summary = "Get authors alive in a year range",
+        description = "Retrieve all authors whose lifetime overlaps the given range of years"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Authors retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400", 
+            description = "Invalid year range",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "304", 
+            description = "Not modified since the version named by If-None-Match"
+        )
+    })
+    @GetMapping("/alive")
+    public ResponseEntity<ApiResponse<List<AuthorResponseDto>>> getAuthorsAliveBetween(
+            @Parameter(description = "First year of the range", example = "1800")
+            @RequestParam Integer from,
+            @Parameter(description = "Last year of the range", example = "1850")
+            @RequestParam Integer to,
+            ServletWebRequest webRequest) {
+        
+        try {
+            if (from < 0 || to > 2024 || from > to) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Invalid year range: " + from + "-" + to));
+            }
+            if (ConditionalRequests.notModified(webRequest, catalogVersions.authors(), listingCacheControl)) {
+                return null;
+            }
+            
+            List<AuthorResponseDto> authorDtos = authorService.getAuthorsAliveBetween(from, to);
+            
+            String message = authorDtos.isEmpty() 
+                ? "No authors found who were alive between " + from + " and " + to
+                : "Authors retrieved successfully for years: " + from + "-" + to;
+            
+            return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, listingCacheControl)
+                .body(ApiResponse.success(message, authorDtos));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Error retrieving authors by year range: " + e.getMessage()));
+        }
+    }
+    
     @Operation(
         summary = "Get author by ID",
         description = "Retrieve a specific author by their ID"
@@ -113,6 +227,10 @@ public class AuthorController {
             description = "Author found",
             content = @Content(schema = @Schema(implementation = ApiResponse.class))
         ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "304", 
+            description = "Not modified since the version named by If-None-Match"
+        ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "404", 
             description = "Author not found",
@@ -122,15 +240,18 @@ public class AuthorController {
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<AuthorResponseDto>> getAuthorById(
             @Parameter(description = "Author ID", example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            ServletWebRequest webRequest) {
         
         try {
-            Author author = authorService.getAuthorById(id);
-            if (author != null) {
-                AuthorResponseDto authorDto = AuthorResponseDto.fromEntity(author);
-                return ResponseEntity.ok(
-                    ApiResponse.success("Author found", authorDto)
-                );
+            AuthorResponseDto authorDto = authorService.getAuthorById(id);
+            if (authorDto != null) {
+                if (ConditionalRequests.notModified(webRequest, catalogVersions.author(id), authorCacheControl)) {
+                    return null;
+                }
+                return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, authorCacheControl)
+                    .body(ApiResponse.success("Author found", authorDto));
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error("Author not found with ID: " + id));
@@ -0,0 +1,57 @@
+package com.bookapp.repository;
+
+import com.bookapp.dto.AuthorResponseDto;
+import com.bookapp.model.Author;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface AuthorQueryRepository extends Repository<Author, Long> {
+    
+    @Query("select new com.bookapp.dto.AuthorResponseDto(a.id, a.name, a.birthYear, a.deathYear) " +
+           "from Author a where a.id > :after order by a.id")
+    List<AuthorResponseDto> findPageAfter(@Param("after") long after, Pageable pageable);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.AUTHORS)
+    })
+    @Query("select new com.bookapp.dto.AuthorResponseDto(a.id, a.name, a.birthYear, a.deathYear) " +
+           "from Author a where a.id = :id")
+    Optional<AuthorResponseDto> findDtoById(@Param("id") Long id);
+    
+    /**
+     * Matches on the {@code name_key} column the migrations generate, which is not mapped on the
+     * entity; keys come from {@link com.bookapp.util.TextNormalizer}.
+     */
+    @Query(value = "select a.id, a.name, a.birth_year, a.death_year from authors a where a.name_key in (:normalizedNames)",
+           nativeQuery = true)
+    List<Author> findAllByNormalizedNameIn(@Param("normalizedNames") Collection<String> normalizedNames);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.AUTHORS_BY_YEAR)
+    })
+    @Query("select new com.bookapp.dto.AuthorResponseDto(a.id, a.name, a.birthYear, a.deathYear) " +
+           "from Author a where a.birthYear <= :to and (a.deathYear is null or a.deathYear >= :from) order by a.id")
+    List<AuthorResponseDto> findAuthorsAliveBetween(@Param("from") int from, @Param("to") int to);
+    
+    @Query("select new com.bookapp.repository.CatalogStamp(count(a), coalesce(max(a.id), 0), coalesce(sum(a.id), 0)) from Author a")
+    CatalogStamp findStamp();
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select a from Author a order by a.id")
+    Stream<Author> streamAll();
+}
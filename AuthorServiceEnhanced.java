@@ -1,35 +1,235 @@
 package com.bookapp.service;
 
+import com.bookapp.dto.AuthorResponseDto;
+import com.bookapp.index.AuthorYearIndex;
 import com.bookapp.model.Author;
+import com.bookapp.repository.AuthorQueryRepository;
 import com.bookapp.repository.AuthorRepository;
+import com.bookapp.repository.CatalogStamp;
+import com.bookapp.util.TextNormalizer;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class AuthorServiceEnhanced {
     
+    private static final Logger log = LoggerFactory.getLogger(AuthorServiceEnhanced.class);
+    private static final int INDEX_LOAD_PAGE_SIZE = 1000;
+    
     private final AuthorRepository authorRepository;
+    private final AuthorQueryRepository authorQueryRepository;
+    private final AuthorYearIndex authorYearIndex;
+    private final CatalogCounters catalogCounters;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private volatile CatalogStamp indexedAuthorStamp;
+    private final Map<String, Long> authorIdsByName = new ConcurrentHashMap<>();
+    private final Map<Long, AuthorResponseDto> authorSnapshotsById = new ConcurrentHashMap<>();
     
     @Autowired
-    public AuthorServiceEnhanced(AuthorRepository authorRepository) {
+    public AuthorServiceEnhanced(AuthorRepository authorRepository, AuthorQueryRepository authorQueryRepository,
+                                 AuthorYearIndex authorYearIndex, CatalogCounters catalogCounters,
+                                 EntityManager entityManager, PlatformTransactionManager transactionManager) {
         this.authorRepository = authorRepository;
+        this.authorQueryRepository = authorQueryRepository;
+        this.authorYearIndex = authorYearIndex;
+        this.catalogCounters = catalogCounters;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /** Reads in read-write transactions, so from the primary, like the book index rebuild. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAuthorYearIndex() {
+        CatalogStamp stamp = authorQueryRepository.findStamp();
+        loadAuthorYearIndex();
+        indexedAuthorStamp = stamp;
+        log.info("Author year index built with {} authors", authorYearIndex.size());
+    }
+    
+    /**
+     * Authors created by other instances never reach this one's events, so the index is rebuilt
+     * whenever the authors' {@link CatalogStamp} moved since the last build.
+     */
+    @Scheduled(fixedDelayString = "${catalog.index.resync-interval-ms:60000}",
+               initialDelayString = "${catalog.index.resync-interval-ms:60000}")
+    public void resyncAuthorYearIndex() {
+        if (!authorYearIndex.isReady()) {
+            return;
+        }
+        CatalogStamp stamp = authorQueryRepository.findStamp();
+        if (stamp.equals(indexedAuthorStamp)) {
+            return;
+        }
+        loadAuthorYearIndex();
+        indexedAuthorStamp = stamp;
+        log.debug("Author year index resynced with {} authors", authorYearIndex.size());
+    }
+    
+    private void loadAuthorYearIndex() {
+        List<AuthorResponseDto> authors = new ArrayList<>();
+        long after = 0L;
+        List<AuthorResponseDto> page;
+        do {
+            long cursor = after;
+            page = transactionTemplate.execute(status ->
+                authorQueryRepository.findPageAfter(cursor, PageRequest.of(0, INDEX_LOAD_PAGE_SIZE)));
+            authors.addAll(page);
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == INDEX_LOAD_PAGE_SIZE);
+        authorYearIndex.rebuild(authors);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<AuthorResponseDto> getAuthorsPage(Long after, int limit) {
+        return authorQueryRepository.findPageAfter(after == null ? 0L : after, PageRequest.of(0, limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public void exportAuthors(Consumer<AuthorResponseDto> sink) {
+        try (Stream<Author> authors = authorQueryRepository.streamAll()) {
+            authors.forEach(author -> {
+                sink.accept(AuthorResponseDto.fromEntity(author));
+                entityManager.detach(author);
+            });
+        }
+    }
+    
+    /**
+     * Resolves authors by normalized name for use inside the caller's write transaction. Cached
+     * ids become uninitialized references without a query, the remaining names are looked up with a single
+     * IN query, and names that still don't match become new transient authors that are cached
+     * once the transaction commits.
+     */
+    @Transactional
+    public Map<String, Author> resolveAuthors(Collection<Author> authorsFromApi) {
+        Map<String, Author> resolved = new HashMap<>();
+        Map<String, Author> missing = new LinkedHashMap<>();
+        
+        for (Author authorFromApi : authorsFromApi) {
+            String key = TextNormalizer.normalize(authorFromApi.getName());
+            if (resolved.containsKey(key) || missing.containsKey(key)) {
+                continue;
+            }
+            Long id = authorIdsByName.get(key);
+            if (id != null) {
+                resolved.put(key, authorRepository.getReferenceById(id));
+            } else {
+                missing.put(key, authorFromApi);
+            }
+        }
+        
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+        
+        for (Author existingAuthor : authorQueryRepository.findAllByNormalizedNameIn(missing.keySet())) {
+            String key = TextNormalizer.normalize(existingAuthor.getName());
+            resolved.put(key, existingAuthor);
+            remember(key, AuthorResponseDto.fromEntity(existingAuthor));
+            missing.remove(key);
+        }
+        
+        List<Author> newAuthors = new ArrayList<>(missing.size());
+        missing.forEach((key, authorFromApi) -> {
+            Author newAuthor = new Author(authorFromApi.getName(), authorFromApi.getBirthYear(), authorFromApi.getDeathYear());
+            resolved.put(key, newAuthor);
+            newAuthors.add(newAuthor);
+        });
+        rememberAfterCommit(newAuthors);
+        return resolved;
+    }
+    
+    /**
+     * Maps an author without initializing it when it is a reference handed out by
+     * {@link #resolveAuthors}, so callers can describe new books without extra queries.
+     */
+    public AuthorResponseDto toResponseDto(Author author) {
+        if (!Hibernate.isInitialized(author)) {
+            AuthorResponseDto snapshot = authorSnapshotsById.get(author.getId());
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+        return AuthorResponseDto.fromEntity(author);
+    }
+    
+    public void clearAuthorCache() {
+        authorIdsByName.clear();
+        authorSnapshotsById.clear();
+    }
+    
+    private void remember(String key, AuthorResponseDto author) {
+        authorIdsByName.put(key, author.getId());
+        authorSnapshotsById.put(author.getId(), author);
+    }
+    
+    private void rememberAfterCommit(List<Author> newAuthors) {
+        if (newAuthors.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (Author author : newAuthors) {
+                    if (author.getId() != null) {
+                        AuthorResponseDto snapshot = AuthorResponseDto.fromEntity(author);
+                        remember(TextNormalizer.normalize(author.getName()), snapshot);
+                        authorYearIndex.add(snapshot);
+                    }
+                }
+                catalogCounters.authorsCreated(newAuthors.size());
+            }
+        });
     }
     
-    public List<Author> getAllAuthors() {
-        return authorRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<AuthorResponseDto> getAuthorsByYear(Integer year) {
+        if (authorYearIndex.isReady()) {
+            return authorYearIndex.findAliveIn(year);
+        }
+        return authorQueryRepository.findAuthorsAliveBetween(year, year);
     }
     
-    public List<Author> getAuthorsByYear(Integer year) {
-        return authorRepository.findAuthorsByYear(year);
+    @Transactional(readOnly = true)
+    public List<AuthorResponseDto> getAuthorsAliveBetween(int from, int to) {
+        if (authorYearIndex.isReady()) {
+            return authorYearIndex.findAliveBetween(from, to);
+        }
+        return authorQueryRepository.findAuthorsAliveBetween(from, to);
     }
     
-    public Author getAuthorById(Long id) {
-        return authorRepository.findById(id).orElse(null);
+    @Transactional(readOnly = true)
+    public AuthorResponseDto getAuthorById(Long id) {
+        return authorQueryRepository.findDtoById(id).orElse(null);
     }
     
     public long getTotalAuthorsCount() {
-        return authorRepository.count();
+        return catalogCounters.getAuthors();
     }
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+package com.bookapp.index;
+
+import com.bookapp.dto.AuthorResponseDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory centered interval tree over author lifespans ({@code birthYear} to {@code deathYear},
+ * open-ended when the death year is unknown). Authors without a birth year are not indexed.
+ *
+ * <p>Readers work on an immutable snapshot and never lock. Inserts go to a small pending array
+ * that is scanned linearly and folded into a rebuilt tree once it reaches {@link #REBUILD_THRESHOLD}.
+ * Writers serialize on a {@link ReentrantLock} rather than a monitor so a virtual thread waiting
+ * behind a rebuild unmounts instead of pinning its carrier.
+ */
+@Component
+public class AuthorYearIndex {
+    
+    private static final int REBUILD_THRESHOLD = 1024;
+    private static final Comparator<AuthorResponseDto> BY_ID = Comparator.comparing(AuthorResponseDto::getId);
+    
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot snapshot = new Snapshot(null, new Interval[0], new Interval[0]);
+    private Set<Long> indexedIds = new HashSet<>();
+    private volatile boolean ready;
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public int size() {
+        Snapshot current = snapshot;
+        return current.indexed().length + current.pending().length;
+    }
+    
+    public void rebuild(Collection<AuthorResponseDto> authors) {
+        writeLock.lock();
+        try {
+            rebuildLocked(authors);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    private void rebuildLocked(Collection<AuthorResponseDto> authors) {
+        List<Interval> intervals = new ArrayList<>(authors.size());
+        Set<Long> ids = new HashSet<>();
+        for (AuthorResponseDto author : authors) {
+            if (author.getBirthYear() != null && ids.add(author.getId())) {
+                intervals.add(Interval.of(author));
+            }
+        }
+        // Keep authors added while the caller was loading the rebuild input.
+        for (Interval interval : snapshot.pending()) {
+            if (ids.add(interval.author().getId())) {
+                intervals.add(interval);
+            }
+        }
+        Interval[] indexed = intervals.toArray(new Interval[0]);
+        snapshot = new Snapshot(Node.build(indexed), indexed, new Interval[0]);
+        indexedIds = ids;
+        ready = true;
+    }
+    
+    public void add(AuthorResponseDto author) {
+        writeLock.lock();
+        try {
+            addLocked(author);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    private void addLocked(AuthorResponseDto author) {
+        if (author.getBirthYear() == null || !indexedIds.add(author.getId())) {
+            return;
+        }
+        
+        Snapshot current = snapshot;
+        Interval[] pending = Arrays.copyOf(current.pending(), current.pending().length + 1);
+        pending[pending.length - 1] = Interval.of(author);
+        if (pending.length < REBUILD_THRESHOLD) {
+            snapshot = new Snapshot(current.root(), current.indexed(), pending);
+            return;
+        }
+        
+        Interval[] indexed = Arrays.copyOf(current.indexed(), current.indexed().length + pending.length);
+        System.arraycopy(pending, 0, indexed, current.indexed().length, pending.length);
+        snapshot = new Snapshot(Node.build(indexed), indexed, new Interval[0]);
+    }
+    
+    public List<AuthorResponseDto> findAliveIn(int year) {
+        return findAliveBetween(year, year);
+    }
+    
+    public List<AuthorResponseDto> findAliveBetween(int from, int to) {
+        Snapshot current = snapshot;
+        List<AuthorResponseDto> result = new ArrayList<>();
+        Node.collect(current.root(), from, to, result);
+        for (Interval interval : current.pending()) {
+            if (interval.start() <= to && interval.end() >= from) {
+                result.add(interval.author());
+            }
+        }
+        result.sort(BY_ID);
+        return result;
+    }
+    
+    private record Snapshot(Node root, Interval[] indexed, Interval[] pending) {
+    }
+    
+    private record Interval(int start, int end, AuthorResponseDto author) {
+        
+        static Interval of(AuthorResponseDto author) {
+            int end = author.getDeathYear() != null ? author.getDeathYear() : Integer.MAX_VALUE;
+            return new Interval(author.getBirthYear(), end, author);
+        }
+    }
+    
+    private static final class Node {
+        
+        private final int center;
+        private final Interval[] byStart;
+        private final Interval[] byEndDescending;
+        private final Node left;
+        private final Node right;
+        
+        private Node(int center, Interval[] byStart, Interval[] byEndDescending, Node left, Node right) {
+            this.center = center;
+            this.byStart = byStart;
+            this.byEndDescending = byEndDescending;
+            this.left = left;
+            this.right = right;
+        }
+        
+        static Node build(Interval[] intervals) {
+            if (intervals.length == 0) {
+                return null;
+            }
+            Interval[] sorted = intervals.clone();
+            Arrays.sort(sorted, Comparator.comparingInt(Interval::start));
+            int center = sorted[sorted.length / 2].start();
+            
+            List<Interval> left = new ArrayList<>();
+            List<Interval> right = new ArrayList<>();
+            List<Interval> overlapping = new ArrayList<>();
+            for (Interval interval : sorted) {
+                if (interval.end() < center) {
+                    left.add(interval);
+                } else if (interval.start() > center) {
+                    right.add(interval);
+                } else {
+                    overlapping.add(interval);
+                }
+            }
+            
+            Interval[] byStart = overlapping.toArray(new Interval[0]);
+            Interval[] byEndDescending = byStart.clone();
+            Arrays.sort(byEndDescending, Comparator.comparingInt(Interval::end).reversed());
+            return new Node(center, byStart, byEndDescending,
+                build(left.toArray(new Interval[0])), build(right.toArray(new Interval[0])));
+        }
+        
+        static void collect(Node node, int from, int to, List<AuthorResponseDto> result) {
+            while (node != null) {
+                if (to < node.center) {
+                    for (Interval interval : node.byStart) {
+                        if (interval.start() > to) {
+                            break;
+                        }
+                        result.add(interval.author());
+                    }
+                    node = node.left;
+                } else if (from > node.center) {
+                    for (Interval interval : node.byEndDescending) {
+                        if (interval.end() < from) {
+                            break;
+                        }
+                        result.add(interval.author());
+                    }
+                    node = node.right;
+                } else {
+                    for (Interval interval : node.byStart) {
+                        result.add(interval.author());
+                    }
+                    collect(node.left, from, to, result);
+                    node = node.right;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.bookapp.repository;
+
+/**
+ * One row of the flat book/author join used by the read-only book queries. Books without
+ * authors produce a single row with null author columns.
+ */
+public record BookAuthorRow(Long bookId, String title, String language, Integer downloadCount,
+                            Long authorId, String authorName, Integer authorBirthYear, Integer authorDeathYear) {
+}
@@ -0,0 +1,41 @@
+package com.bookapp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of searching and saving a single title in a batch")
+public class BookBatchResultDto {
+    
+    public static final String SAVED = "saved";
+    public static final String NOT_FOUND = "not_found";
+    public static final String ERROR = "error";
+    
+    @Schema(description = "Requested title", example = "Dom Casmurro")
+    private String title;
+    
+    @Schema(description = "Outcome for this title", example = "saved", allowableValues = {SAVED, NOT_FOUND, ERROR})
+    private String status;
+    
+    @Schema(description = "Error detail when the title could not be saved")
+    private String message;
+    
+    @Schema(description = "Saved book, present when status is 'saved'")
+    private BookResponseDto book;
+    
+    public static BookBatchResultDto saved(String title, BookResponseDto book) {
+        return new BookBatchResultDto(title, SAVED, null, book);
+    }
+    
+    public static BookBatchResultDto notFound(String title) {
+        return new BookBatchResultDto(title, NOT_FOUND, "No book found with title: " + title, null);
+    }
+    
+    public static BookBatchResultDto error(String title, String message) {
+        return new BookBatchResultDto(title, ERROR, message, null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.bookapp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Batch book search request data transfer object")
+public class BookBatchSearchRequestDto {
+    
+    @NotEmpty(message = "Titles cannot be empty")
+    @Size(max = 5000, message = "At most 5000 titles can be searched per request")
+    @Schema(description = "Book titles to search for", example = "[\"Dom Casmurro\", \"Hamlet\"]", required = true)
+    private List<@NotBlank(message = "Title cannot be blank") @Size(max = 255, message = "Title must be at most 255 characters") String> titles;
+}
@@ -0,0 +1,111 @@
+package com.bookapp.service;
+
+import com.bookapp.dto.BookBatchResultDto;
+import com.bookapp.dto.BookResponseDto;
+import com.bookapp.model.Book;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Looks up a batch of titles concurrently and saves the matches in bulk. At most
+ * {@code gutendex.batch.concurrency} lookups are in flight at once across all batches: with
+ * virtual threads each lookup gets its own thread and waits for a semaphore permit, otherwise a
+ * fixed pool of that many platform threads runs them.
+ */
+@Service
+public class BookBatchSearchService {
+    
+    private final GutendexSearchCache gutendexSearchCache;
+    private final BookServiceEnhanced bookService;
+    private final ExecutorService fetchExecutor;
+    private final Semaphore fetchPermits;
+    
+    @Autowired
+    public BookBatchSearchService(GutendexSearchCache gutendexSearchCache, BookServiceEnhanced bookService,
+                                  @Value("${gutendex.batch.concurrency:8}") int concurrency,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.gutendexSearchCache = gutendexSearchCache;
+        this.bookService = bookService;
+        this.fetchPermits = new Semaphore(concurrency);
+        this.fetchExecutor = virtualThreads
+            ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("gutendex-batch-", 1).factory())
+            : Executors.newFixedThreadPool(concurrency, Thread.ofPlatform().name("gutendex-batch-", 1).daemon(true).factory());
+    }
+    
+    public List<BookBatchResultDto> searchAndSaveBooks(List<String> titles) {
+        List<CompletableFuture<Book>> fetches = new ArrayList<>(titles.size());
+        for (String title : titles) {
+            fetches.add(CompletableFuture.supplyAsync(() -> firstMatch(title), fetchExecutor));
+        }
+        
+        List<Book> found = new ArrayList<>();
+        List<Object> outcomes = new ArrayList<>(titles.size());
+        for (CompletableFuture<Book> fetch : fetches) {
+            try {
+                Book book = fetch.join();
+                outcomes.add(book);
+                if (book != null) {
+                    found.add(book);
+                }
+            } catch (RuntimeException e) {
+                outcomes.add(e.getCause() != null ? e.getCause() : e);
+            }
+        }
+        
+        Map<String, BookResponseDto> saved;
+        try {
+            saved = bookService.saveBooks(found);
+        } catch (RuntimeException e) {
+            saved = Map.of();
+            for (int i = 0; i < outcomes.size(); i++) {
+                if (outcomes.get(i) instanceof Book) {
+                    outcomes.set(i, e);
+                }
+            }
+        }
+        
+        List<BookBatchResultDto> results = new ArrayList<>(titles.size());
+        for (int i = 0; i < titles.size(); i++) {
+            String title = titles.get(i);
+            Object outcome = outcomes.get(i);
+            if (outcome instanceof Book book) {
+                results.add(BookBatchResultDto.saved(title, saved.get(book.getTitle())));
+            } else if (outcome instanceof Throwable error) {
+                results.add(BookBatchResultDto.error(title, "Error searching for book: " + error.getMessage()));
+            } else {
+                results.add(BookBatchResultDto.notFound(title));
+            }
+        }
+        return results;
+    }
+    
+    private Book firstMatch(String title) {
+        try {
+            fetchPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to search for " + title, e);
+        }
+        try {
+            List<Book> booksFromApi = gutendexSearchCache.searchBooksByTitle(title);
+            return booksFromApi.isEmpty() ? null : booksFromApi.get(0);
+        } finally {
+            fetchPermits.release();
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+}
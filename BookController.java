@@ -1,10 +1,19 @@
 package com.bookapp.controller;
 
 import com.bookapp.dto.ApiResponse;
+import com.bookapp.dto.BookBatchResultDto;
+import com.bookapp.dto.BookBatchSearchRequestDto;
 import com.bookapp.dto.BookResponseDto;
 import com.bookapp.dto.BookSearchRequestDto;
-import com.bookapp.model.Book;
-import com.bookapp.service.BookService;
+import com.bookapp.dto.PageResponseDto;
+import com.bookapp.dto.SearchJobDto;
+import com.bookapp.exception.GutendexUnavailableException;
+import com.bookapp.service.BookBatchSearchService;
+import com.bookapp.service.BookServiceEnhanced;
+import com.bookapp.service.CatalogVersions;
+import com.bookapp.service.SearchJobService;
+import com.bookapp.util.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,28 +22,54 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/books")
 @Tag(name = "Books", description = "Book management API")
 public class BookController {
     
-    private final BookService bookService;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    
+    private final BookServiceEnhanced bookService;
+    private final BookBatchSearchService bookBatchSearchService;
+    private final SearchJobService searchJobService;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersions catalogVersions;
+    private final String bookCacheControl;
+    private final String listingCacheControl;
     
     @Autowired
-    public BookController(BookService bookService) {
+    public BookController(BookServiceEnhanced bookService, BookBatchSearchService bookBatchSearchService,
+                          SearchJobService searchJobService, ObjectMapper objectMapper, CatalogVersions catalogVersions,
+                          @Value("${http.cache-control.book:max-age=300}") String bookCacheControl,
+                          @Value("${http.cache-control.book-listings:no-cache}") String listingCacheControl) {
         this.bookService = bookService;
+        this.bookBatchSearchService = bookBatchSearchService;
+        this.searchJobService = searchJobService;
+        this.objectMapper = objectMapper;
+        this.catalogVersions = catalogVersions;
+        this.bookCacheControl = bookCacheControl;
+        this.listingCacheControl = listingCacheControl;
     }
     
     @Operation(
         summary = "Search and save book by title",
-        description = "Search for a book by title using the Gutendex API and save it to the database"
+        description = "Search for a book by title using the Gutendex API and save it to the database. With async=true the search is queued and a job is returned immediately"
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -42,6 +77,11 @@ public class BookController {
             description = "Book found and saved successfully",
             content = @Content(schema = @Schema(implementation = ApiResponse.class))
         ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "202", 
+            description = "Search job accepted; poll the Location header for the result",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "404", 
             description = "Book not found",
@@ -51,17 +91,27 @@ public class BookController {
             responseCode = "400", 
             description = "Invalid request",
             content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "503", 
+            description = "Gutendex is unavailable or saturated, or the search job queue is full; stored books remain available",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
         )
     })
     @PostMapping("/search")
-    public ResponseEntity<ApiResponse<BookResponseDto>> searchAndSaveBook(
-            @Valid @RequestBody BookSearchRequestDto request) {
+    public ResponseEntity<ApiResponse<?>> searchAndSaveBook(
+            @Valid @RequestBody BookSearchRequestDto request,
+            @Parameter(description = "Queue the search and return a job instead of waiting for Gutendex", example = "false")
+            @RequestParam(defaultValue = "false") boolean async) {
+        
+        if (async) {
+            return submitSearchJob(request.getTitle());
+        }
         
         try {
-            Book book = bookService.saveBookFromGutendex(request.getTitle());
+            BookResponseDto bookDto = bookService.saveBookFromGutendex(request.getTitle());
             
-            if (book != null) {
-                BookResponseDto bookDto = BookResponseDto.fromEntity(book);
+            if (bookDto != null) {
                 return ResponseEntity.ok(
                     ApiResponse.success("Book found and saved successfully", bookDto)
                 );
@@ -69,33 +119,174 @@ public class BookController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error("No book found with title: " + request.getTitle()));
             }
+        } catch (GutendexUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error("Book search is temporarily unavailable: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ApiResponse.error("Error searching for book: " + e.getMessage()));
         }
     }
     
+    private ResponseEntity<ApiResponse<?>> submitSearchJob(String title) {
+        try {
+            SearchJobDto job = searchJobService.submit(title);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/books/search/jobs/" + job.getId()))
+                .body(ApiResponse.success("Search job accepted", job));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(ApiResponse.error("Search queue is full, try again later"));
+        }
+    }
+    
+    @Operation(
+        summary = "Get search job",
+        description = "Status of an asynchronous title search and, once saved, the resulting book"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Job found",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404", 
+            description = "Unknown or expired job",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    @GetMapping("/search/jobs/{id}")
+    public ResponseEntity<ApiResponse<SearchJobDto>> getSearchJob(
+            @Parameter(description = "Job ID returned when the search was accepted")
+            @PathVariable String id) {
+        
+        SearchJobDto job = searchJobService.getJob(id);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error("Search job not found with id: " + id));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Search job retrieved successfully", job));
+    }
+    
+    @Operation(
+        summary = "Search stored books",
+        description = "Fuzzy search over the titles and author names of books already in the database, ranked by match quality and downloads. Never calls the Gutendex API"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Search completed",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400", 
+            description = "Invalid query or limit",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "503", 
+            description = "Search index is still loading",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<BookResponseDto>>> searchStoredBooks(
+            @Parameter(description = "Title or author text to search for", example = "casmuro")
+            @RequestParam String q,
+            @Parameter(description = "Maximum number of results (1-" + MAX_SEARCH_RESULTS + ")", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        try {
+            if (q.isBlank() || limit < 1 || limit > MAX_SEARCH_RESULTS) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Invalid search query or limit"));
+            }
+            if (!bookService.isLocalSearchReady()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Search index is still loading"));
+            }
+            
+            List<BookResponseDto> bookDtos = bookService.searchLocal(q, limit);
+            String message = bookDtos.isEmpty() 
+                ? "No stored books match: " + q
+                : "Books found for: " + q;
+            
+            return ResponseEntity.ok(
+                ApiResponse.success(message, bookDtos)
+            );
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Error searching stored books: " + e.getMessage()));
+        }
+    }
+    
+    @Operation(
+        summary = "Search and save books in batch",
+        description = "Search many titles in parallel using the Gutendex API and save the results in batched inserts"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Batch processed, see per-title results",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400", 
+            description = "Invalid request",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    @PostMapping("/search/batch")
+    public ResponseEntity<ApiResponse<List<BookBatchResultDto>>> searchAndSaveBooks(
+            @Valid @RequestBody BookBatchSearchRequestDto request) {
+        
+        try {
+            List<BookBatchResultDto> results = bookBatchSearchService.searchAndSaveBooks(request.getTitles());
+            return ResponseEntity.ok(
+                ApiResponse.success("Batch processed successfully", results)
+            );
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Error processing batch: " + e.getMessage()));
+        }
+    }
+    
     @Operation(
-        summary = "Get all registered books",
-        description = "Retrieve all books stored in the database"
+        summary = "Get registered books",
+        description = "Retrieve books stored in the database, one keyset page at a time ordered by ID"
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "200", 
             description = "Books retrieved successfully",
             content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400", 
+            description = "Invalid page size",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
         )
     })
     @GetMapping
-    public ResponseEntity<ApiResponse<List<BookResponseDto>>> getAllBooks() {
+    public ResponseEntity<ApiResponse<PageResponseDto<BookResponseDto>>> getAllBooks(
+            @Parameter(description = "Return books with ID greater than this cursor", example = "0")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size (1-" + MAX_PAGE_SIZE + ")", example = "50")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        
         try {
-            List<Book> books = bookService.getAllBooks();
-            List<BookResponseDto> bookDtos = books.stream()
-                .map(BookResponseDto::fromEntity)
-                .collect(Collectors.toList());
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Invalid limit: " + limit));
+            }
+            
+            List<BookResponseDto> bookDtos = bookService.getBooksPage(after, limit);
             
             return ResponseEntity.ok(
-                ApiResponse.success("Books retrieved successfully", bookDtos)
+                ApiResponse.success("Books retrieved successfully",
+                    PageResponseDto.of(bookDtos, limit, BookResponseDto::getId))
             );
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -103,9 +294,32 @@ public class BookController {
         }
     }
     
+    @Operation(
+        summary = "Export books",
+        description = "Stream every book stored in the database as newline-delimited JSON, one book per line ordered by ID. Selected with Accept: application/x-ndjson"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Books streamed successfully",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)
+        )
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        StreamingResponseBody body = out -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+                bookService.exportBooks(writer::write);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+    
     @Operation(
         summary = "Get books by language",
-        description = "Retrieve all books in a specific language"
+        description = "Retrieve books in a specific language, one keyset page at a time ordered by ID"
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -115,34 +329,78 @@ public class BookController {
         ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "400", 
-            description = "Invalid language code",
+            description = "Invalid language code or page size",
             content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "304", 
+            description = "Not modified since the version named by If-None-Match"
         )
     })
     @GetMapping("/language/{languageCode}")
-    public ResponseEntity<ApiResponse<List<BookResponseDto>>> getBooksByLanguage(
+    public ResponseEntity<ApiResponse<PageResponseDto<BookResponseDto>>> getBooksByLanguage(
             @Parameter(description = "Language code (PT, EN, ES, FR)", example = "pt")
-            @PathVariable String languageCode) {
+            @PathVariable String languageCode,
+            @Parameter(description = "Return books with ID greater than this cursor", example = "0")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size (1-" + MAX_PAGE_SIZE + ")", example = "50")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            ServletWebRequest webRequest) {
         
         try {
-            List<Book> books = bookService.getBooksByLanguage(languageCode.toLowerCase());
-            List<BookResponseDto> bookDtos = books.stream()
-                .map(BookResponseDto::fromEntity)
-                .collect(Collectors.toList());
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Invalid limit: " + limit));
+            }
+            if (ConditionalRequests.notModified(webRequest, catalogVersions.booksInLanguage(languageCode), listingCacheControl)) {
+                return null;
+            }
             
-            String message = books.isEmpty() 
+            List<BookResponseDto> bookDtos = bookService.getBooksByLanguagePage(languageCode.toLowerCase(), after, limit);
+            
+            String message = bookDtos.isEmpty() 
                 ? "No books found for language: " + languageCode
                 : "Books retrieved successfully for language: " + languageCode;
             
-            return ResponseEntity.ok(
-                ApiResponse.success(message, bookDtos)
-            );
+            return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, listingCacheControl)
+                .body(ApiResponse.success(message, PageResponseDto.of(bookDtos, limit, BookResponseDto::getId)));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ApiResponse.error("Error retrieving books by language: " + e.getMessage()));
         }
     }
     
+    @Operation(
+        summary = "Get language facets",
+        description = "Retrieve the number of registered books per language code"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Language counts retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "304", 
+            description = "Not modified since the version named by If-None-Match"
+        )
+    })
+    @GetMapping("/languages")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getLanguageCounts(ServletWebRequest webRequest) {
+        try {
+            if (ConditionalRequests.notModified(webRequest, catalogVersions.books(), listingCacheControl)) {
+                return null;
+            }
+            return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, listingCacheControl)
+                .body(ApiResponse.success("Language counts retrieved successfully", bookService.getLanguageCounts()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Error retrieving language counts: " + e.getMessage()));
+        }
+    }
+    
     @Operation(
         summary = "Get book by ID",
         description = "Retrieve a specific book by its ID"
@@ -153,6 +411,10 @@ public class BookController {
             description = "Book found",
             content = @Content(schema = @Schema(implementation = ApiResponse.class))
         ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "304", 
+            description = "Not modified since the version named by If-None-Match"
+        ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "404", 
             description = "Book not found",
@@ -162,15 +424,18 @@ public class BookController {
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<BookResponseDto>> getBookById(
             @Parameter(description = "Book ID", example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            ServletWebRequest webRequest) {
         
         try {
-            Book book = bookService.getBookById(id);
-            if (book != null) {
-                BookResponseDto bookDto = BookResponseDto.fromEntity(book);
-                return ResponseEntity.ok(
-                    ApiResponse.success("Book found", bookDto)
-                );
+            BookResponseDto bookDto = bookService.getBookById(id);
+            if (bookDto != null) {
+                if (ConditionalRequests.notModified(webRequest, catalogVersions.book(id), bookCacheControl)) {
+                    return null;
+                }
+                return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, bookCacheControl)
+                    .body(ApiResponse.success("Book found", bookDto));
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error("Book not found with ID: " + id));
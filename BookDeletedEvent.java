@@ -0,0 +1,4 @@
+package com.bookapp.event;
+
+public record BookDeletedEvent(Long id, String title, String language) {
+}
@@ -0,0 +1,74 @@
+package com.bookapp.repository;
+
+import com.bookapp.model.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookQueryRepository extends Repository<Book, Long> {
+    
+    @Query("select b.id from Book b where b.id > :after order by b.id")
+    List<Long> findIdsAfter(@Param("after") long after, Pageable pageable);
+    
+    @Query("select distinct b from Book b left join fetch b.authors where b.id in :ids order by b.id")
+    List<Book> findAllWithAuthorsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.BOOKS)
+    })
+    @Query("select new com.bookapp.repository.BookAuthorRow(b.id, b.title, b.language, b.downloadCount, " +
+           "a.id, a.name, a.birthYear, a.deathYear) from Book b left join b.authors a where b.id in :ids order by b.id, a.id")
+    List<BookAuthorRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Matches on the {@code title_key} column the migrations generate, which is not mapped on the
+     * entity; keys come from {@link com.bookapp.util.TextNormalizer}.
+     */
+    @Query(value = "select b.id from books b where b.title_key in (:titleKeys)", nativeQuery = true)
+    List<Long> findIdsByTitleKeyIn(@Param("titleKeys") Collection<String> titleKeys);
+    
+    default List<Book> findAllWithAuthorsByNormalizedTitleIn(Collection<String> normalizedTitles) {
+        if (normalizedTitles.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = findIdsByTitleKeyIn(normalizedTitles);
+        return ids.isEmpty() ? List.of() : findAllWithAuthorsByIdIn(ids);
+    }
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.BOOKS_BY_LANGUAGE)
+    })
+    @Query("select b.id from Book b where b.language = :language and b.id > :after order by b.id")
+    List<Long> findIdsByLanguageAfter(@Param("language") String language, @Param("after") long after, Pageable pageable);
+    
+    @Query("select new com.bookapp.repository.CatalogStamp(count(b), coalesce(max(b.id), 0), coalesce(sum(b.id), 0)) from Book b")
+    CatalogStamp findStamp();
+    
+    @Query("select new com.bookapp.repository.CatalogStamp(count(b), coalesce(max(b.id), 0), coalesce(sum(b.id), 0)) from Book b " +
+           "where b.language = :language")
+    CatalogStamp findStampByLanguage(@Param("language") String language);
+    
+    @Query("select b.language, count(b) from Book b group by b.language")
+    List<Object[]> countByLanguage();
+    
+    /**
+     * Streams every book with its authors over a single cursor. Rows are ordered by book id so
+     * Hibernate can assemble each book from consecutive rows; must be consumed inside a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select b from Book b left join fetch b.authors order by b.id")
+    Stream<Book> streamAllWithAuthors();
+}
@@ -1,89 +1,407 @@
 package com.bookapp.service;
 
+import com.bookapp.dto.AuthorResponseDto;
+import com.bookapp.dto.BookResponseDto;
+import com.bookapp.event.BookDeletedEvent;
+import com.bookapp.event.BooksCreatedEvent;
 import com.bookapp.exception.BookNotFoundException;
+import com.bookapp.index.LanguageIndex;
+import com.bookapp.index.TitleSearchIndex;
 import com.bookapp.model.Author;
 import com.bookapp.model.Book;
-import com.bookapp.repository.AuthorRepository;
+import com.bookapp.repository.BookAuthorRow;
+import com.bookapp.repository.BookQueryRepository;
 import com.bookapp.repository.BookRepository;
+import com.bookapp.repository.CatalogStamp;
+import com.bookapp.util.SingleFlight;
+import com.bookapp.util.TextNormalizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.Timer;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BookServiceEnhanced {
     
+    private static final Logger log = LoggerFactory.getLogger(BookServiceEnhanced.class);
+    private static final int PERSIST_CHUNK_SIZE = 500;
+    private static final int INDEX_LOAD_PAGE_SIZE = 1000;
+    
     private final BookRepository bookRepository;
-    private final AuthorRepository authorRepository;
-    private final GutendexService gutendexService;
+    private final BookQueryRepository bookQueryRepository;
+    private final AuthorServiceEnhanced authorService;
+    private final GutendexSearchCache gutendexSearchCache;
+    private final LanguageIndex languageIndex;
+    private final TitleSearchIndex titleSearchIndex;
+    private final CatalogCounters catalogCounters;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final EntityManager entityManager;
+    private final SingleFlight<String, BookResponseDto> searches = new SingleFlight<>();
+    private volatile CatalogStamp indexedBookStamp;
+    private final Timer fetchTimer;
+    private final Timer lookupTimer;
+    private final Timer persistTimer;
     
     @Autowired
-    public BookServiceEnhanced(BookRepository bookRepository, AuthorRepository authorRepository, GutendexService gutendexService) {
+    public BookServiceEnhanced(BookRepository bookRepository, BookQueryRepository bookQueryRepository,
+                               AuthorServiceEnhanced authorService, GutendexSearchCache gutendexSearchCache,
+                               LanguageIndex languageIndex, TitleSearchIndex titleSearchIndex,
+                               CatalogCounters catalogCounters, ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager, EntityManager entityManager,
+                               MeterRegistry meterRegistry) {
         this.bookRepository = bookRepository;
-        this.authorRepository = authorRepository;
-        this.gutendexService = gutendexService;
+        this.bookQueryRepository = bookQueryRepository;
+        this.authorService = authorService;
+        this.gutendexSearchCache = gutendexSearchCache;
+        this.languageIndex = languageIndex;
+        this.titleSearchIndex = titleSearchIndex;
+        this.catalogCounters = catalogCounters;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.entityManager = entityManager;
+        this.fetchTimer = phaseTimer(meterRegistry, "fetch");
+        this.lookupTimer = phaseTimer(meterRegistry, "lookup");
+        this.persistTimer = phaseTimer(meterRegistry, "persist");
     }
     
-    @Transactional
-    public Book saveBookFromGutendex(String title) {
-        List<Book> booksFromApi = gutendexService.searchBooksByTitle(title);
+    private static Timer phaseTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("bookapp.save.phase")
+            .description("Time spent in each phase of saving books from Gutendex")
+            .tag("phase", phase)
+            .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildBookIndexes() {
+        CatalogStamp stamp = bookQueryRepository.findStamp();
+        loadBookIndexes(stamp);
+        indexedBookStamp = stamp;
+        languageIndex.markReady();
+        titleSearchIndex.markReady();
+        log.info("Book indexes built: {} books, languages {}", titleSearchIndex.size(), languageIndex.getCounts());
+    }
+    
+    /**
+     * Books written or deleted by other instances never reach this one's events, so the indexes
+     * are reloaded whenever the books' {@link CatalogStamp} moved since the last load.
+     */
+    @Scheduled(fixedDelayString = "${catalog.index.resync-interval-ms:60000}",
+               initialDelayString = "${catalog.index.resync-interval-ms:60000}")
+    public void resyncBookIndexes() {
+        if (!titleSearchIndex.isReady()) {
+            return;
+        }
+        CatalogStamp stamp = bookQueryRepository.findStamp();
+        if (stamp.equals(indexedBookStamp)) {
+            return;
+        }
+        loadBookIndexes(stamp);
+        indexedBookStamp = stamp;
+        log.debug("Book indexes resynced: {} books", titleSearchIndex.size());
+    }
+    
+    /**
+     * Adds every stored book to the indexes, then drops indexed ids up to the stamp's highest id
+     * that the load did not see; a book created meanwhile with a lower id moves the stamp and is
+     * restored by the next resync. Each page is read in a read-write transaction so the indexes
+     * come from the primary, not from a replica that may still miss recent books.
+     */
+    private void loadBookIndexes(CatalogStamp stamp) {
+        RoaringBitmap loadedIds = new RoaringBitmap();
+        long after = 0L;
+        List<BookResponseDto> page;
+        do {
+            long cursor = after;
+            page = transactionTemplate.execute(status -> getBooksPage(cursor, INDEX_LOAD_PAGE_SIZE));
+            for (BookResponseDto book : page) {
+                languageIndex.add(book.getId(), book.getLanguage());
+                titleSearchIndex.add(book);
+                if (book.getId() <= Integer.MAX_VALUE) {
+                    loadedIds.add(book.getId().intValue());
+                }
+                after = book.getId();
+            }
+        } while (page.size() == INDEX_LOAD_PAGE_SIZE);
+        languageIndex.removeMissing(loadedIds, stamp.maxId());
+        titleSearchIndex.removeMissing(loadedIds, stamp.maxId());
+    }
+    
+    /**
+     * @return the stored book, converted inside the transaction that read or wrote it
+     */
+    public BookResponseDto saveBookFromGutendex(String title) {
+        return searches.execute(TextNormalizer.normalize(title), () -> fetchAndSaveBook(title));
+    }
+    
+    private BookResponseDto fetchAndSaveBook(String title) {
+        BookResponseDto localBook = lookupTimer.record(() -> findLocalMatch(title));
+        if (localBook != null) {
+            return localBook;
+        }
+        
+        List<Book> booksFromApi = fetchTimer.record(() -> gutendexSearchCache.searchBooksByTitle(title));
         
         if (booksFromApi.isEmpty()) {
             throw new BookNotFoundException("No book found with title: " + title);
         }
         
         Book bookFromApi = booksFromApi.get(0);
-        Optional<Book> existingBook = bookRepository.findByTitle(bookFromApi.getTitle());
+        try {
+            return transactionTemplate.execute(status -> persistBook(bookFromApi));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer inserted the same book or one of its authors first; the retry
+            // finds whichever it was as existing, as in saveBooks.
+            authorService.clearAuthorCache();
+            return transactionTemplate.execute(status -> persistBook(bookFromApi));
+        }
+    }
+    
+    private BookResponseDto findLocalMatch(String title) {
+        Optional<BookResponseDto> localMatch = titleSearchIndex.findLocalMatch(title);
+        if (localMatch.isEmpty()) {
+            return null;
+        }
+        return readOnlyTransactionTemplate.execute(status ->
+            bookQueryRepository.findAllWithAuthorsByIdIn(List.of(localMatch.get().getId())).stream()
+                .findFirst()
+                .map(this::toResponseDto)
+                .orElse(null));
+    }
+    
+    private BookResponseDto persistBook(Book bookFromApi) {
+        return persistChunk(List.of(bookFromApi.getTitle()), Map.of(bookFromApi.getTitle(), bookFromApi))
+            .get(bookFromApi.getTitle());
+    }
+    
+    /**
+     * Bulk persist path: each chunk of up to {@value #PERSIST_CHUNK_SIZE} titles is written in one
+     * transaction and one flush, so inserts for books, new authors and author links go out as JDBC
+     * batches with sequence ids preallocated, not one statement per row. Books come back as DTOs
+     * built inside that transaction, while their authors can still be loaded.
+     */
+    public Map<String, BookResponseDto> saveBooks(Collection<Book> booksFromApi) {
+        Map<String, Book> booksByTitle = new LinkedHashMap<>();
+        for (Book bookFromApi : booksFromApi) {
+            booksByTitle.putIfAbsent(bookFromApi.getTitle(), bookFromApi);
+        }
+        
+        List<String> titles = new ArrayList<>(booksByTitle.keySet());
+        Map<String, BookResponseDto> saved = new HashMap<>();
+        for (int from = 0; from < titles.size(); from += PERSIST_CHUNK_SIZE) {
+            List<String> chunk = titles.subList(from, Math.min(from + PERSIST_CHUNK_SIZE, titles.size()));
+            try {
+                saved.putAll(transactionTemplate.execute(status -> persistChunk(chunk, booksByTitle)));
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent writer inserted some of these titles; the retry will find them as existing.
+                authorService.clearAuthorCache();
+                saved.putAll(transactionTemplate.execute(status -> persistChunk(chunk, booksByTitle)));
+            }
+        }
+        return saved;
+    }
+    
+    private Map<String, BookResponseDto> persistChunk(List<String> titles, Map<String, Book> booksByTitle) {
+        long lookupStartedAt = System.nanoTime();
+        Map<String, String> keysByTitle = new LinkedHashMap<>();
+        for (String title : titles) {
+            keysByTitle.put(title, TextNormalizer.normalize(title));
+        }
+        Map<String, Book> booksByKey = new HashMap<>();
+        for (Book existingBook : bookQueryRepository.findAllWithAuthorsByNormalizedTitleIn(new HashSet<>(keysByTitle.values()))) {
+            booksByKey.put(TextNormalizer.normalize(existingBook.getTitle()), existingBook);
+        }
         
-        if (existingBook.isPresent()) {
-            return existingBook.get();
+        // Titles differing only in case or spacing are one book; the unique title_key index enforces it.
+        Map<String, Book> booksToCreate = new LinkedHashMap<>();
+        List<Author> authorsFromApi = new ArrayList<>();
+        keysByTitle.forEach((title, key) -> {
+            if (!booksByKey.containsKey(key) && !booksToCreate.containsKey(key)) {
+                Book bookFromApi = booksByTitle.get(title);
+                booksToCreate.put(key, bookFromApi);
+                authorsFromApi.addAll(bookFromApi.getAuthors());
+            }
+        });
+        Map<String, BookResponseDto> result = new HashMap<>();
+        if (booksToCreate.isEmpty()) {
+            keysByTitle.forEach((title, key) -> result.put(title, toResponseDto(booksByKey.get(key))));
+            lookupTimer.record(System.nanoTime() - lookupStartedAt, TimeUnit.NANOSECONDS);
+            return result;
         }
         
+        Map<String, Author> resolvedAuthors = authorService.resolveAuthors(authorsFromApi);
+        List<Book> newBooks = new ArrayList<>(booksToCreate.size());
+        for (Book bookFromApi : booksToCreate.values()) {
+            newBooks.add(buildNewBook(bookFromApi, resolvedAuthors));
+        }
+        long persistStartedAt = System.nanoTime();
+        lookupTimer.record(persistStartedAt - lookupStartedAt, TimeUnit.NANOSECONDS);
+        
+        List<Book> savedBooks = bookRepository.saveAll(newBooks);
+        for (Book savedBook : savedBooks) {
+            booksByKey.put(TextNormalizer.normalize(savedBook.getTitle()), savedBook);
+        }
+        bookRepository.flush();
+        keysByTitle.forEach((title, key) -> result.put(title, toResponseDto(booksByKey.get(key))));
+        eventPublisher.publishEvent(new BooksCreatedEvent(savedBooks.stream()
+            .map(savedBook -> result.get(savedBook.getTitle()))
+            .toList()));
+        persistTimer.record(System.nanoTime() - persistStartedAt, TimeUnit.NANOSECONDS);
+        return result;
+    }
+    
+    private Book buildNewBook(Book bookFromApi, Map<String, Author> resolvedAuthors) {
         Book newBook = new Book(bookFromApi.getTitle(), bookFromApi.getLanguage(), bookFromApi.getDownloadCount());
         Set<Author> authors = new HashSet<>();
         
         for (Author authorFromApi : bookFromApi.getAuthors()) {
-            Optional<Author> existingAuthor = authorRepository.findByName(authorFromApi.getName());
-            
-            Author author = existingAuthor.orElseGet(() -> 
-                new Author(authorFromApi.getName(), authorFromApi.getBirthYear(), authorFromApi.getDeathYear())
-            );
-            
-            authors.add(author);
+            authors.add(resolvedAuthors.get(TextNormalizer.normalize(authorFromApi.getName())));
         }
         
         for (Author author : authors) {
             newBook.addAuthor(author);
         }
         
-        return bookRepository.save(newBook);
+        return newBook;
+    }
+    
+    public BookResponseDto toResponseDto(Book book) {
+        BookResponseDto dto = new BookResponseDto();
+        dto.setId(book.getId());
+        dto.setTitle(book.getTitle());
+        dto.setLanguage(book.getLanguage());
+        dto.setDownloadCount(book.getDownloadCount());
+        dto.setAuthors(book.getAuthors().stream()
+            .map(authorService::toResponseDto)
+            .collect(Collectors.toSet()));
+        return dto;
     }
     
-    public List<Book> getAllBooks() {
-        return bookRepository.findAll();
+    public List<BookResponseDto> searchLocal(String query, int limit) {
+        return titleSearchIndex.search(query, limit).stream()
+            .map(TitleSearchIndex.Match::book)
+            .toList();
     }
     
-    public List<Book> getBooksByLanguage(String language) {
-        return bookRepository.findByLanguage(language);
+    public boolean isLocalSearchReady() {
+        return titleSearchIndex.isReady();
     }
     
-    public Book getBookById(Long id) {
-        return bookRepository.findById(id).orElse(null);
+    @Transactional(readOnly = true)
+    public List<BookResponseDto> getBooksPage(Long after, int limit) {
+        List<Long> ids = bookQueryRepository.findIdsAfter(after == null ? 0L : after, PageRequest.of(0, limit));
+        return findBookDtos(ids);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<BookResponseDto> getBooksByLanguagePage(String language, Long after, int limit) {
+        long cursor = after == null ? 0L : after;
+        List<Long> ids = languageIndex.isReady()
+            ? languageIndex.findIdsAfter(language, cursor, limit)
+            : bookQueryRepository.findIdsByLanguageAfter(language, cursor, PageRequest.of(0, limit));
+        return findBookDtos(ids);
+    }
+    
+    /**
+     * Loads books and their authors as one flat projection and groups consecutive rows per book,
+     * so read paths never hydrate managed entities.
+     */
+    private List<BookResponseDto> findBookDtos(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<BookResponseDto> books = new ArrayList<>(ids.size());
+        BookResponseDto current = null;
+        for (BookAuthorRow row : bookQueryRepository.findRowsByIdIn(ids)) {
+            if (current == null || !current.getId().equals(row.bookId())) {
+                current = new BookResponseDto(row.bookId(), row.title(), row.language(), row.downloadCount(),
+                    new HashSet<>());
+                books.add(current);
+            }
+            if (row.authorId() != null) {
+                current.getAuthors().add(new AuthorResponseDto(row.authorId(), row.authorName(),
+                    row.authorBirthYear(), row.authorDeathYear()));
+            }
+        }
+        return books;
+    }
+    
+    /**
+     * Streams the whole catalog to {@code sink} in id order, detaching each book once it has been
+     * mapped so the persistence context stays small regardless of table size.
+     */
+    @Transactional(readOnly = true)
+    public void exportBooks(Consumer<BookResponseDto> sink) {
+        try (Stream<Book> books = bookQueryRepository.streamAllWithAuthors()) {
+            books.forEach(book -> {
+                sink.accept(BookResponseDto.fromEntity(book));
+                book.getAuthors().forEach(entityManager::detach);
+                entityManager.detach(book);
+            });
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public Map<String, Long> getLanguageCounts() {
+        if (languageIndex.isReady()) {
+            return languageIndex.getCounts();
+        }
+        Map<String, Long> counts = new TreeMap<>();
+        for (Object[] row : bookQueryRepository.countByLanguage()) {
+            if (row[0] != null) {
+                counts.put((String) row[0], (Long) row[1]);
+            }
+        }
+        return counts;
+    }
+    
+    @Transactional(readOnly = true)
+    public BookResponseDto getBookById(Long id) {
+        return findBookDtos(List.of(id)).stream()
+            .findFirst()
+            .orElse(null);
     }
     
     @Transactional
     public void deleteBook(Long id) {
-        if (!bookRepository.existsById(id)) {
-            throw new BookNotFoundException("Book not found with ID: " + id);
-        }
-        bookRepository.deleteById(id);
+        Book book = bookRepository.findById(id)
+            .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + id));
+        bookRepository.delete(book);
+        eventPublisher.publishEvent(new BookDeletedEvent(book.getId(), book.getTitle(), book.getLanguage()));
     }
     
     public long getTotalBooksCount() {
-        return bookRepository.count();
+        return catalogCounters.getBooks();
     }
 }
\ No newline at end of file
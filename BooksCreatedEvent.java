@@ -0,0 +1,8 @@
+package com.bookapp.event;
+
+import com.bookapp.dto.BookResponseDto;
+
+import java.util.List;
+
+public record BooksCreatedEvent(List<BookResponseDto> books) {
+}
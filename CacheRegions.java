@@ -0,0 +1,16 @@
+package com.bookapp.repository;
+
+/**
+ * Names of the Hibernate query cache regions used by the read repositories. Entity and
+ * collection regions use Hibernate's default names (the entity class and role names).
+ */
+public final class CacheRegions {
+    
+    public static final String BOOKS = "bookapp.books";
+    public static final String BOOKS_BY_LANGUAGE = "bookapp.books-by-language";
+    public static final String AUTHORS = "bookapp.authors";
+    public static final String AUTHORS_BY_YEAR = "bookapp.authors-by-year";
+    
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,78 @@
+package com.bookapp.service;
+
+import com.bookapp.event.BookDeletedEvent;
+import com.bookapp.event.BooksCreatedEvent;
+import com.bookapp.repository.AuthorRepository;
+import com.bookapp.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Book and author totals kept in memory so health probes never run COUNT(*). Seeded at startup,
+ * maintained from the write paths and periodically re-synced to correct any drift.
+ */
+@Component
+public class CatalogCounters {
+    
+    private static final Logger log = LoggerFactory.getLogger(CatalogCounters.class);
+    
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final AtomicLong books = new AtomicLong();
+    private final AtomicLong authors = new AtomicLong();
+    private volatile boolean seeded;
+    
+    @Autowired
+    public CatalogCounters(BookRepository bookRepository, AuthorRepository authorRepository) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+    }
+    
+    public long getBooks() {
+        return books.get();
+    }
+    
+    public long getAuthors() {
+        return authors.get();
+    }
+    
+    public boolean isSeeded() {
+        return seeded;
+    }
+    
+    public void authorsCreated(int count) {
+        authors.addAndGet(count);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        books.set(bookRepository.count());
+        authors.set(authorRepository.count());
+        seeded = true;
+        log.info("Catalog counters seeded: {} books, {} authors", books.get(), authors.get());
+    }
+    
+    @Scheduled(fixedDelayString = "${health.counters.resync-interval-ms:900000}",
+               initialDelayString = "${health.counters.resync-interval-ms:900000}")
+    public void resync() {
+        seed();
+    }
+    
+    @TransactionalEventListener
+    public void onBooksCreated(BooksCreatedEvent event) {
+        books.addAndGet(event.books().size());
+    }
+    
+    @TransactionalEventListener
+    public void onBookDeleted(BookDeletedEvent event) {
+        books.decrementAndGet();
+    }
+}
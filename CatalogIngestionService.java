@@ -0,0 +1,284 @@
+package com.bookapp.service;
+
+import com.bookapp.metrics.GutendexMetrics;
+import com.bookapp.model.Book;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Crawls the full Gutendex catalog by following {@code next} links. A fetch thread parses pages
+ * into a bounded queue and a persist thread drains it, so a slow database throttles the crawl
+ * instead of letting fetched pages pile up. The URL of the next unpersisted page is checkpointed
+ * after every page, and a new run resumes from it.
+ */
+@Service
+public class CatalogIngestionService {
+    
+    private static final Logger log = LoggerFactory.getLogger(CatalogIngestionService.class);
+    
+    public enum State { IDLE, RUNNING, STOPPING, COMPLETED, STOPPED, FAILED }
+    
+    private final BookServiceEnhanced bookService;
+    private final GutendexPageParser pageParser;
+    private final HttpClient httpClient;
+    private final String startUrl;
+    private final Path checkpointFile;
+    private final int queueCapacity;
+    private final Duration requestTimeout;
+    private final Timer pageSuccessTimer;
+    private final Timer pageErrorTimer;
+    private volatile IngestionRun currentRun;
+    
+    @Autowired
+    public CatalogIngestionService(BookServiceEnhanced bookService,
+                                   GutendexPageParser pageParser,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${gutendex.ingestion.start-url:${gutendex.api.url}}") String startUrl,
+                                   @Value("${gutendex.ingestion.checkpoint-file:gutendex-ingestion.checkpoint}") String checkpointFile,
+                                   @Value("${gutendex.ingestion.queue-capacity:4}") int queueCapacity,
+                                   @Value("${gutendex.ingestion.request-timeout:30s}") Duration requestTimeout) {
+        this.bookService = bookService;
+        this.pageParser = pageParser;
+        this.startUrl = startUrl;
+        this.checkpointFile = Path.of(checkpointFile);
+        this.queueCapacity = queueCapacity;
+        this.requestTimeout = requestTimeout;
+        this.pageSuccessTimer = GutendexMetrics.clientTimer(meterRegistry, "catalog_page", "success");
+        this.pageErrorTimer = GutendexMetrics.clientTimer(meterRegistry, "catalog_page", "error");
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+    
+    public synchronized boolean start() {
+        if (currentRun != null && currentRun.isActive()) {
+            return false;
+        }
+        String resumeUrl = readCheckpoint();
+        currentRun = new IngestionRun(resumeUrl != null ? resumeUrl : startUrl, resumeUrl != null);
+        currentRun.start();
+        return true;
+    }
+    
+    public synchronized boolean stop() {
+        if (currentRun == null || !currentRun.isActive()) {
+            return false;
+        }
+        currentRun.requestStop();
+        return true;
+    }
+    
+    public Map<String, Object> getStatus() {
+        IngestionRun run = currentRun;
+        if (run == null) {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("state", State.IDLE);
+            status.put("checkpoint", readCheckpoint());
+            return status;
+        }
+        return run.status();
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        IngestionRun run = currentRun;
+        if (run != null && run.isActive()) {
+            run.requestStop();
+        }
+    }
+    
+    private String readCheckpoint() {
+        try {
+            if (!Files.exists(checkpointFile)) {
+                return null;
+            }
+            String url = Files.readString(checkpointFile, StandardCharsets.UTF_8).trim();
+            return url.isEmpty() ? null : url;
+        } catch (IOException e) {
+            log.warn("Could not read ingestion checkpoint {}: {}", checkpointFile, e.getMessage());
+            return null;
+        }
+    }
+    
+    private void writeCheckpoint(String nextUrl) throws IOException {
+        if (nextUrl == null) {
+            Files.deleteIfExists(checkpointFile);
+            return;
+        }
+        Path tmp = Files.createTempFile(checkpointFile.toAbsolutePath().getParent(), "gutendex-ingestion", ".tmp");
+        Files.writeString(tmp, nextUrl, StandardCharsets.UTF_8);
+        Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private record Page(String url, String nextUrl, List<Book> books) {
+    }
+    
+    private static final Page END = new Page(null, null, List.of());
+    
+    private class IngestionRun {
+        
+        private final String firstUrl;
+        private final boolean resumed;
+        private final BlockingQueue<Page> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicLong pagesFetched = new AtomicLong();
+        private final AtomicLong pagesPersisted = new AtomicLong();
+        private final AtomicLong booksPersisted = new AtomicLong();
+        private final Thread fetcher = new Thread(this::fetchPages, "gutendex-ingestion-fetch");
+        private final Thread persister = new Thread(this::persistPages, "gutendex-ingestion-persist");
+        private volatile State state = State.RUNNING;
+        private volatile boolean stopRequested;
+        private volatile boolean fetchFailed;
+        private volatile String lastPersistedUrl;
+        private volatile String error;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        
+        IngestionRun(String firstUrl, boolean resumed) {
+            this.firstUrl = firstUrl;
+            this.resumed = resumed;
+        }
+        
+        void start() {
+            startedAt = Instant.now();
+            fetcher.setDaemon(true);
+            persister.setDaemon(true);
+            fetcher.start();
+            persister.start();
+        }
+        
+        boolean isActive() {
+            return state == State.RUNNING || state == State.STOPPING;
+        }
+        
+        void requestStop() {
+            stopRequested = true;
+            state = State.STOPPING;
+        }
+        
+        private void fetchPages() {
+            String url = firstUrl;
+            try {
+                while (url != null && !stopRequested) {
+                    Page page = fetchPage(url);
+                    pagesFetched.incrementAndGet();
+                    queue.put(page);
+                    url = page.nextUrl();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                fetchFailed = true;
+                error = "Fetch failed for " + url + ": " + e.getMessage();
+                log.error("Gutendex ingestion fetch failed for {}", url, e);
+            } finally {
+                try {
+                    queue.put(END);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        
+        private Page fetchPage(String url) throws IOException, InterruptedException {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+            long startedAt = System.nanoTime();
+            try {
+                HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream body = response.body()) {
+                    if (response.statusCode() != 200) {
+                        throw new IOException("HTTP " + response.statusCode());
+                    }
+                    List<Book> books = new ArrayList<>();
+                    String nextUrl = pageParser.parse(body, books::add);
+                    pageSuccessTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    return new Page(url, nextUrl, books);
+                }
+            } catch (IOException e) {
+                pageErrorTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+        }
+        
+        private void persistPages() {
+            try {
+                while (true) {
+                    Page page = queue.take();
+                    if (page == END) {
+                        break;
+                    }
+                    bookService.saveBooks(page.books());
+                    writeCheckpoint(page.nextUrl());
+                    lastPersistedUrl = page.url();
+                    pagesPersisted.incrementAndGet();
+                    booksPersisted.addAndGet(page.books().size());
+                }
+                state = fetchFailed ? State.FAILED : stopRequested ? State.STOPPED : State.COMPLETED;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                state = State.STOPPED;
+            } catch (Exception e) {
+                error = "Persist failed: " + e.getMessage();
+                log.error("Gutendex ingestion persist failed", e);
+                stopRequested = true;
+                queue.clear();
+                fetcher.interrupt();
+                state = State.FAILED;
+            } finally {
+                finishedAt = Instant.now();
+                log.info("Gutendex ingestion {}: {} pages, {} books", state, pagesPersisted.get(), booksPersisted.get());
+            }
+        }
+        
+        Map<String, Object> status() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000.0;
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("state", state);
+            status.put("resumed", resumed);
+            status.put("startUrl", firstUrl);
+            status.put("lastPersistedUrl", lastPersistedUrl);
+            status.put("pagesFetched", pagesFetched.get());
+            status.put("pagesPersisted", pagesPersisted.get());
+            status.put("booksPersisted", booksPersisted.get());
+            status.put("queuedPages", queue.size());
+            status.put("pagesPerSecond", pagesPersisted.get() / seconds);
+            status.put("booksPerSecond", booksPersisted.get() / seconds);
+            status.put("startedAt", startedAt);
+            status.put("finishedAt", finishedAt);
+            status.put("error", error);
+            return status;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.bookapp.repository;
+
+/**
+ * Row count, highest id and id sum of a slice of the catalog. Rows are never updated and ids are
+ * never reused, so an insert or a delete always changes the count or the sum, whichever instance
+ * wrote it; ids are only roughly ordered, since each instance allocates from its own pooled block.
+ */
+public record CatalogStamp(long count, long maxId, long idSum) {
+}
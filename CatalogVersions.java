@@ -0,0 +1,66 @@
+package com.bookapp.service;
+
+import com.bookapp.repository.AuthorQueryRepository;
+import com.bookapp.repository.BookQueryRepository;
+import com.bookapp.repository.CatalogStamp;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Validators for conditional GETs, derived from the database so every instance answers the same
+ * ETag for the same data. Books and authors are never updated once stored, so a single resource
+ * is versioned by its id alone; callers resolve it first so a missing one gets 404, not 304.
+ * Listings are versioned by the {@link CatalogStamp} of their scope.
+ *
+ * <p>ETags are weak: a version identifies the data, not the bytes, which differ with the
+ * negotiated format and with compression. Tomcat also refuses to gzip a response carrying a
+ * strong ETag. No Last-Modified is sent, since neither the rows nor the stamps record when a
+ * deletion happened.
+ */
+@Component
+public class CatalogVersions {
+    
+    /** An ETag with no modification time; {@code lastModified} is always -1. */
+    public record Version(String etag, long lastModified) {
+    }
+    
+    private final BookQueryRepository bookQueryRepository;
+    private final AuthorQueryRepository authorQueryRepository;
+    
+    @Autowired
+    public CatalogVersions(BookQueryRepository bookQueryRepository, AuthorQueryRepository authorQueryRepository) {
+        this.bookQueryRepository = bookQueryRepository;
+        this.authorQueryRepository = authorQueryRepository;
+    }
+    
+    public Version book(Long id) {
+        return version("book-" + id);
+    }
+    
+    public Version author(Long id) {
+        return version("author-" + id);
+    }
+    
+    public Version books() {
+        return version("books", bookQueryRepository.findStamp());
+    }
+    
+    public Version booksInLanguage(String language) {
+        String code = language.toLowerCase(Locale.ROOT);
+        return version("books-" + code, bookQueryRepository.findStampByLanguage(code));
+    }
+    
+    public Version authors() {
+        return version("authors", authorQueryRepository.findStamp());
+    }
+    
+    private static Version version(String scope, CatalogStamp stamp) {
+        return version(scope + "-" + stamp.count() + "-" + stamp.maxId() + "-" + stamp.idSum());
+    }
+    
+    private static Version version(String tag) {
+        return new Version("W/\"" + tag + "\"", -1);
+    }
+}
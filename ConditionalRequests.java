@@ -0,0 +1,27 @@
+package com.bookapp.controller;
+
+import com.bookapp.service.CatalogVersions;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+final class ConditionalRequests {
+    
+    private ConditionalRequests() {
+    }
+    
+    /**
+     * Evaluates If-None-Match against {@code version}, whose weak ETag is compared weakly. On a
+     * match the 304 status, validators and Cache-Control are already set and
+     * the handler should return {@code null}; otherwise the validators are set for the full
+     * response.
+     */
+    static boolean notModified(ServletWebRequest request, CatalogVersions.Version version, String cacheControl) {
+        if (version == null || !request.checkNotModified(version.etag(), version.lastModified())) {
+            return false;
+        }
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,107 @@
+package com.bookapp.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica routing, active when {@code db.replica.urls} lists at least one replica. The primary
+ * pool is built from {@code spring.datasource.*} exactly as Boot would; each replica pool copies its
+ * settings with the replica URL and read-only connections. Reads served by a replica may be behind
+ * the primary, so they are kept out of the second-level and query caches.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.replica.urls")
+public class DataSourceConfig {
+    
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                 @Value("${db.replica.urls}") String[] replicaUrls,
+                                 @Value("${db.replica.username:${spring.datasource.username:}}") String replicaUsername,
+                                 @Value("${db.replica.password:${spring.datasource.password:}}") String replicaPassword,
+                                 @Value("${db.replica.read-your-writes-window:5s}") Duration readYourWritesWindow,
+                                 @Value("${db.replica.max-lag:5s}") Duration maxLag,
+                                 @Value("${db.replica.lag-query:}") String lagQuery) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+        
+        List<HikariDataSource> replicas = new ArrayList<>(replicaUrls.length);
+        for (int i = 0; i < replicaUrls.length; i++) {
+            HikariConfig config = new HikariConfig();
+            primary.copyStateTo(config);
+            config.setPoolName("replica-" + (i + 1));
+            config.setJdbcUrl(replicaUrls[i].trim());
+            config.setUsername(replicaUsername);
+            config.setPassword(replicaPassword);
+            config.setReadOnly(true);
+            // Start even when a replica is unreachable; the health check marks it down instead
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new HikariDataSource(config));
+        }
+        
+        return new RoutingDataSourceProxy(
+            new ReadWriteRoutingDataSource(primary, replicas, readYourWritesWindow, maxLag, lagQuery));
+    }
+    
+    @Bean
+    public static BeanPostProcessor replicaReadsJpaDialect(ObjectProvider<DataSource> dataSource) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JpaTransactionManager transactionManager) {
+                    try {
+                        ReadWriteRoutingDataSource routingDataSource = dataSource.getObject().unwrap(ReadWriteRoutingDataSource.class);
+                        transactionManager.setJpaDialect(new ReplicaReadsJpaDialect(routingDataSource));
+                    } catch (SQLException e) {
+                        throw new BeanInitializationException("Replica routing data source not found", e);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+    
+    /**
+     * Defers fetching the physical connection until the first statement, by which time the
+     * transaction's read-only flag is known, and closes the pools on shutdown.
+     */
+    private static final class RoutingDataSourceProxy extends LazyConnectionDataSourceProxy implements Closeable {
+        
+        private final ReadWriteRoutingDataSource routingDataSource;
+        
+        private RoutingDataSourceProxy(ReadWriteRoutingDataSource routingDataSource) {
+            super(routingDataSource);
+            this.routingDataSource = routingDataSource;
+        }
+        
+        @Override
+        public void close() {
+            routingDataSource.close();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.bookapp.service;
+
+import com.bookapp.event.BookDeletedEvent;
+import com.bookapp.event.BooksCreatedEvent;
+import com.bookapp.model.Author;
+import com.bookapp.model.Book;
+import com.bookapp.repository.CacheRegions;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evicts the Hibernate second-level and query cache regions touched by catalog writes once they
+ * commit, on top of Hibernate's own update-timestamp invalidation, and reports hit ratios.
+ */
+@Component
+public class EntityCache {
+    
+    private static final String BOOK_AUTHORS_ROLE = Book.class.getName() + ".authors";
+    private static final List<String> ENTITY_REGIONS = List.of(Book.class.getName(), Author.class.getName(), BOOK_AUTHORS_ROLE);
+    private static final List<String> QUERY_REGIONS = List.of(CacheRegions.BOOKS, CacheRegions.BOOKS_BY_LANGUAGE,
+        CacheRegions.AUTHORS, CacheRegions.AUTHORS_BY_YEAR);
+    
+    private final Cache cache;
+    private final Statistics statistics;
+    
+    @Autowired
+    public EntityCache(EntityManagerFactory entityManagerFactory) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.cache = sessionFactory.getCache();
+        this.statistics = sessionFactory.getStatistics();
+    }
+    
+    @TransactionalEventListener
+    public void onBooksCreated(BooksCreatedEvent event) {
+        QUERY_REGIONS.forEach(cache::evictQueryRegion);
+    }
+    
+    @TransactionalEventListener
+    public void onBookDeleted(BookDeletedEvent event) {
+        cache.evictEntityData(Book.class, event.id());
+        cache.evictCollectionData(BOOK_AUTHORS_ROLE, event.id());
+        cache.evictQueryRegion(CacheRegions.BOOKS);
+        cache.evictQueryRegion(CacheRegions.BOOKS_BY_LANGUAGE);
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        data.put("secondLevel", ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()));
+        data.put("queryCache", ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+        
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : ENTITY_REGIONS) {
+            regions.put(region, regionStats(statistics.getDomainDataRegionStatistics(region)));
+        }
+        for (String region : QUERY_REGIONS) {
+            regions.put(region, regionStats(statistics.getQueryRegionStatistics(region)));
+        }
+        data.put("regions", regions);
+        return data;
+    }
+    
+    private static Map<String, Object> regionStats(CacheRegionStatistics region) {
+        if (region == null) {
+            return Map.of();
+        }
+        Map<String, Object> data = ratio(region.getHitCount(), region.getMissCount());
+        data.put("puts", region.getPutCount());
+        data.put("elementsInMemory", region.getElementCountInMemory());
+        return data;
+    }
+    
+    private static Map<String, Object> ratio(long hits, long misses) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("hits", hits);
+        data.put("misses", misses);
+        data.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return data;
+    }
+}
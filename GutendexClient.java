@@ -0,0 +1,201 @@
+package com.bookapp.service;
+
+import com.bookapp.exception.GutendexUnavailableException;
+import com.bookapp.model.Book;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.core.functions.CheckedSupplier;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Gutendex search client on a shared HTTP/2-capable {@link HttpClient}. Each exchange has a hard
+ * deadline, transient failures (I/O errors, timeouts, 429 and 5xx) are retried with jittered
+ * exponential backoff behind a circuit breaker, and a bulkhead caps concurrent searches so a slow
+ * upstream can only tie up that many request threads. When the breaker is open or the bulkhead
+ * is full, callers fail fast with {@link GutendexUnavailableException}.
+ */
+@Component
+public class GutendexClient {
+    
+    private static final String NAME = "gutendex";
+    
+    private final String apiUrl;
+    private final Duration requestTimeout;
+    private final GutendexPageParser pageParser;
+    private final ExecutorService httpExecutor;
+    private final HttpClient httpClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Retry retry;
+    private final Bulkhead bulkhead;
+    
+    @Autowired
+    public GutendexClient(GutendexPageParser pageParser, MeterRegistry meterRegistry,
+                          @Value("${gutendex.api.url}") String apiUrl,
+                          @Value("${gutendex.client.connect-timeout:2s}") Duration connectTimeout,
+                          @Value("${gutendex.client.request-timeout:5s}") Duration requestTimeout,
+                          @Value("${gutendex.client.max-attempts:3}") int maxAttempts,
+                          @Value("${gutendex.client.initial-backoff:200ms}") Duration initialBackoff,
+                          @Value("${gutendex.client.max-concurrent-calls:16}") int maxConcurrentCalls,
+                          @Value("${gutendex.client.max-wait:100ms}") Duration maxWait,
+                          @Value("${gutendex.client.failure-rate-threshold:50}") float failureRateThreshold,
+                          @Value("${gutendex.client.slow-call-threshold:3s}") Duration slowCallThreshold,
+                          @Value("${gutendex.client.open-duration:30s}") Duration openDuration,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.apiUrl = apiUrl;
+        this.requestTimeout = requestTimeout;
+        this.pageParser = pageParser;
+        HttpClient.Builder httpClientBuilder = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL);
+        this.httpExecutor = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        if (httpExecutor != null) {
+            httpClientBuilder.executor(httpExecutor);
+        }
+        this.httpClient = httpClientBuilder.build();
+        
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowSize(20)
+            .minimumNumberOfCalls(10)
+            .failureRateThreshold(failureRateThreshold)
+            .slowCallDurationThreshold(slowCallThreshold)
+            .slowCallRateThreshold(failureRateThreshold)
+            .waitDurationInOpenState(openDuration)
+            .permittedNumberOfCallsInHalfOpenState(3)
+            .recordException(GutendexClient::isTransient)
+            .build());
+        RetryRegistry retries = RetryRegistry.of(RetryConfig.custom()
+            .maxAttempts(maxAttempts)
+            .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(initialBackoff, 2.0, 0.5))
+            .retryOnException(GutendexClient::isTransient)
+            .build());
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(maxConcurrentCalls)
+            .maxWaitDuration(maxWait)
+            .build());
+        this.circuitBreaker = circuitBreakers.circuitBreaker(NAME);
+        this.retry = retries.retry(NAME);
+        this.bulkhead = bulkheads.bulkhead(NAME);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedRetryMetrics.ofRetryRegistry(retries).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        if (httpExecutor != null) {
+            httpExecutor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Searches Gutendex by title and returns the first result page, empty when nothing matches.
+     */
+    public List<Book> searchBooksByTitle(String title) {
+        URI uri = URI.create(apiUrl + "?search=" + URLEncoder.encode(title, StandardCharsets.UTF_8));
+        CheckedSupplier<List<Book>> call = CircuitBreaker.decorateCheckedSupplier(circuitBreaker, () -> fetch(uri));
+        call = Retry.decorateCheckedSupplier(retry, call);
+        call = Bulkhead.decorateCheckedSupplier(bulkhead, call);
+        try {
+            return call.get();
+        } catch (CallNotPermittedException e) {
+            throw new GutendexUnavailableException("Gutendex circuit is open, search temporarily disabled", e);
+        } catch (BulkheadFullException e) {
+            throw new GutendexUnavailableException("Too many concurrent Gutendex searches", e);
+        } catch (GutendexUnavailableException e) {
+            throw e;
+        } catch (Throwable e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new GutendexUnavailableException("Gutendex search failed: " + e.getMessage(), e);
+        }
+    }
+    
+    public String getCircuitState() {
+        return circuitBreaker.getState().name();
+    }
+    
+    private List<Book> fetch(URI uri) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+            .header("Accept", "application/json")
+            .timeout(requestTimeout)
+            .GET()
+            .build();
+        CompletableFuture<HttpResponse<byte[]>> exchange = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> response;
+        try {
+            response = exchange.get(requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            exchange.cancel(true);
+            throw new HttpTimeoutException("Gutendex did not answer within " + requestTimeout);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException(e.getCause());
+        }
+        
+        int status = response.statusCode();
+        if (status == 429 || status >= 500) {
+            throw new UpstreamStatusException(status);
+        }
+        if (status != 200) {
+            throw new GutendexUnavailableException("Gutendex answered HTTP " + status);
+        }
+        List<Book> books = new ArrayList<>();
+        pageParser.parse(new ByteArrayInputStream(response.body()), books::add);
+        return books;
+    }
+    
+    /**
+     * I/O errors and timeouts (including {@link UpstreamStatusException}) are worth retrying and
+     * count against the circuit breaker; anything else is a definite answer.
+     */
+    private static boolean isTransient(Throwable e) {
+        return e instanceof IOException;
+    }
+    
+    private static final class UpstreamStatusException extends IOException {
+        
+        UpstreamStatusException(int status) {
+            super("Gutendex answered HTTP " + status);
+        }
+    }
+}
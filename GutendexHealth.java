@@ -0,0 +1,90 @@
+package com.bookapp.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Last known Gutendex reachability. Real upstream calls report their outcome here; a background
+ * probe only runs when there has been no traffic for a whole probe interval.
+ */
+@Component
+public class GutendexHealth {
+    
+    private final HttpClient httpClient;
+    private final URI probeUri;
+    private final long probeIntervalMs;
+    private volatile Instant lastSuccess;
+    private volatile Instant lastFailure;
+    private volatile String lastError;
+    
+    public GutendexHealth(@Value("${gutendex.api.url}") String apiUrl,
+                          @Value("${gutendex.health.probe-interval-ms:60000}") long probeIntervalMs) {
+        this.probeUri = URI.create(apiUrl + "?ids=1");
+        this.probeIntervalMs = probeIntervalMs;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(3))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+    
+    public void recordSuccess() {
+        lastSuccess = Instant.now();
+    }
+    
+    public void recordFailure(Throwable error) {
+        lastFailure = Instant.now();
+        lastError = error.getMessage();
+    }
+    
+    public boolean isReachable() {
+        Instant success = lastSuccess;
+        Instant failure = lastFailure;
+        return failure == null || (success != null && success.isAfter(failure));
+    }
+    
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("status", isReachable() ? "UP" : "DOWN");
+        status.put("lastSuccess", lastSuccess);
+        status.put("lastFailure", lastFailure);
+        status.put("lastError", isReachable() ? null : lastError);
+        return status;
+    }
+    
+    @Scheduled(fixedDelayString = "${gutendex.health.probe-interval-ms:60000}")
+    public void probe() {
+        Instant latest = lastSuccess;
+        if (lastFailure != null && (latest == null || lastFailure.isAfter(latest))) {
+            latest = lastFailure;
+        }
+        if (latest != null && latest.isAfter(Instant.now().minusMillis(probeIntervalMs))) {
+            return;
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(probeUri)
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() < 500) {
+                recordSuccess();
+            } else {
+                recordFailure(new IllegalStateException("HTTP " + response.statusCode()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            recordFailure(e);
+        }
+    }
+}
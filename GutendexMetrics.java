@@ -0,0 +1,19 @@
+package com.bookapp.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+public final class GutendexMetrics {
+    
+    public static final String CLIENT_REQUESTS = "gutendex.client.requests";
+    
+    private GutendexMetrics() {
+    }
+    
+    public static Timer clientTimer(MeterRegistry registry, String operation, String outcome) {
+        return Timer.builder(CLIENT_REQUESTS)
+            .description("Calls to the Gutendex API")
+            .tags("operation", operation, "outcome", outcome)
+            .register(registry);
+    }
+}
@@ -0,0 +1,164 @@
+package com.bookapp.service;
+
+import com.bookapp.model.Author;
+import com.bookapp.model.Book;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Token-level parser for Gutendex result pages. Books are handed to the sink as soon as each
+ * result object is read, so a page is never materialized as a JSON tree. A {@code null} in place
+ * of an array, or of an element, is skipped.
+ *
+ * <p>Titles and names longer than the columns hold are skipped rather than cut: two long titles
+ * sharing their first {@value #MAX_TEXT_LENGTH} characters would otherwise collapse into one book
+ * through the unique title key.
+ */
+@Component
+public class GutendexPageParser {
+    
+    private static final Logger log = LoggerFactory.getLogger(GutendexPageParser.class);
+    private static final int MAX_TEXT_LENGTH = 255;
+    
+    private final JsonFactory jsonFactory;
+    
+    public GutendexPageParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+    
+    /**
+     * @return the page's {@code next} link, or {@code null} on the last page
+     */
+    public String parse(InputStream body, Consumer<Book> sink) throws IOException {
+        String next = null;
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a Gutendex page object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "next" -> next = parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getText();
+                    case "results" -> {
+                        if (startsArray(parser)) {
+                            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                                Book book = parser.currentToken() == JsonToken.START_OBJECT ? readBook(parser) : skip(parser);
+                                if (book != null) {
+                                    sink.accept(book);
+                                }
+                            }
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return next;
+    }
+    
+    private Book readBook(JsonParser parser) throws IOException {
+        String title = null;
+        String language = null;
+        Integer downloadCount = null;
+        List<Author> authors = new ArrayList<>();
+        
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "title" -> title = parser.getValueAsString();
+                case "download_count" -> downloadCount =
+                    parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsInt();
+                case "languages" -> {
+                    if (startsArray(parser)) {
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            if (language == null && parser.currentToken() == JsonToken.VALUE_STRING) {
+                                language = parser.getText();
+                            }
+                            parser.skipChildren();
+                        }
+                    }
+                }
+                case "authors" -> {
+                    if (startsArray(parser)) {
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            Author author = parser.currentToken() == JsonToken.START_OBJECT ? readAuthor(parser) : skip(parser);
+                            if (author != null) {
+                                authors.add(author);
+                            }
+                        }
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        
+        if (title == null || title.isBlank()) {
+            return null;
+        }
+        if (title.length() > MAX_TEXT_LENGTH) {
+            log.warn("Skipping Gutendex book with a {}-character title: {}...", title.length(), title.substring(0, 80));
+            return null;
+        }
+        Book book = new Book(title, language, downloadCount);
+        for (Author author : authors) {
+            book.addAuthor(author);
+        }
+        return book;
+    }
+    
+    private Author readAuthor(JsonParser parser) throws IOException {
+        String name = null;
+        Integer birthYear = null;
+        Integer deathYear = null;
+        
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "name" -> name = parser.getValueAsString();
+                case "birth_year" -> birthYear = value == JsonToken.VALUE_NULL ? null : parser.getIntValue();
+                case "death_year" -> deathYear = value == JsonToken.VALUE_NULL ? null : parser.getIntValue();
+                default -> parser.skipChildren();
+            }
+        }
+        
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        if (name.length() > MAX_TEXT_LENGTH) {
+            log.warn("Skipping Gutendex author with a {}-character name: {}...", name.length(), name.substring(0, 80));
+            return null;
+        }
+        return new Author(name, birthYear, deathYear);
+    }
+    
+    /**
+     * @return whether the current value is an array; anything else, such as an explicit
+     *         {@code null}, is skipped and reads as an empty array
+     */
+    private static boolean startsArray(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.START_ARRAY) {
+            return true;
+        }
+        parser.skipChildren();
+        return false;
+    }
+    
+    private static <T> T skip(JsonParser parser) throws IOException {
+        parser.skipChildren();
+        return null;
+    }
+}
@@ -0,0 +1,238 @@
+package com.bookapp.service;
+
+import com.bookapp.metrics.GutendexMetrics;
+import com.bookapp.model.Author;
+import com.bookapp.model.Book;
+import com.bookapp.util.SingleFlight;
+import com.bookapp.util.TextNormalizer;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded, TTL-based cache in front of {@link GutendexClient}. Empty results are cached
+ * with their own (shorter) TTL so repeated misses don't go back to the network. When a snapshot
+ * file is configured, the cache is written to it periodically if it changed and on shutdown, so a
+ * crash loses at most one snapshot interval of entries.
+ *
+ * <p>Misses are loaded outside the cache's own compute, through a {@link SingleFlight} per
+ * normalized title, so a slow upstream call never holds a map lock shared with other titles.
+ */
+@Component
+public class GutendexSearchCache {
+    
+    private static final Logger log = LoggerFactory.getLogger(GutendexSearchCache.class);
+    
+    private final GutendexClient gutendexClient;
+    private final GutendexHealth gutendexHealth;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final String snapshotFile;
+    private final Cache<String, Entry> cache;
+    private final SingleFlight<String, Entry> loads = new SingleFlight<>();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong changesSinceSnapshot = new AtomicLong();
+    private final Timer searchSuccessTimer;
+    private final Timer searchNotFoundTimer;
+    private final Timer searchErrorTimer;
+    
+    public GutendexSearchCache(GutendexClient gutendexClient,
+                               GutendexHealth gutendexHealth,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${gutendex.cache.max-size:10000}") long maxSize,
+                               @Value("${gutendex.cache.ttl:6h}") Duration ttl,
+                               @Value("${gutendex.cache.negative-ttl:10m}") Duration negativeTtl,
+                               @Value("${gutendex.cache.snapshot-file:}") String snapshotFile) {
+        this.gutendexClient = gutendexClient;
+        this.gutendexHealth = gutendexHealth;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.snapshotFile = snapshotFile;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new EntryExpiry())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gutendex.search");
+        this.searchSuccessTimer = GutendexMetrics.clientTimer(meterRegistry, "search", "success");
+        this.searchNotFoundTimer = GutendexMetrics.clientTimer(meterRegistry, "search", "not_found");
+        this.searchErrorTimer = GutendexMetrics.clientTimer(meterRegistry, "search", "error");
+    }
+    
+    public List<Book> searchBooksByTitle(String title) {
+        String key = TextNormalizer.normalize(title);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            entry = loads.execute(key, () -> {
+                Entry loaded = cache.asMap().get(key);
+                if (loaded == null) {
+                    loaded = load(title);
+                    cache.put(key, loaded);
+                }
+                return loaded;
+            });
+        }
+        return entry.toBooks();
+    }
+    
+    public void invalidate(String title) {
+        cache.invalidate(TextNormalizer.normalize(title));
+        changesSinceSnapshot.incrementAndGet();
+    }
+    
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("size", cache.estimatedSize());
+        data.put("hits", stats.hitCount());
+        data.put("misses", stats.missCount());
+        data.put("hitRate", stats.hitRate());
+        data.put("evictions", stats.evictionCount());
+        data.put("loadFailures", loadFailures.get());
+        return data;
+    }
+    
+    private Entry load(String title) {
+        List<Book> books;
+        long startedAt = System.nanoTime();
+        try {
+            books = gutendexClient.searchBooksByTitle(title);
+            gutendexHealth.recordSuccess();
+            (books.isEmpty() ? searchNotFoundTimer : searchSuccessTimer).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            loadFailures.incrementAndGet();
+            gutendexHealth.recordFailure(e);
+            searchErrorTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        Duration entryTtl = books.isEmpty() ? negativeTtl : ttl;
+        changesSinceSnapshot.incrementAndGet();
+        return new Entry(books.stream().map(CachedBook::fromEntity).toList(),
+            System.currentTimeMillis() + entryTtl.toMillis());
+    }
+    
+    @PostConstruct
+    void loadSnapshot() {
+        if (snapshotFile.isBlank() || !Files.exists(Path.of(snapshotFile))) {
+            return;
+        }
+        try {
+            Map<String, Entry> entries = objectMapper.readValue(Path.of(snapshotFile).toFile(),
+                new TypeReference<Map<String, Entry>>() { });
+            long now = System.currentTimeMillis();
+            entries.forEach((key, entry) -> {
+                if (entry.expiresAt() > now) {
+                    cache.put(key, entry);
+                }
+            });
+            log.info("Loaded {} Gutendex cache entries from {}", cache.estimatedSize(), snapshotFile);
+        } catch (IOException e) {
+            log.warn("Could not read Gutendex cache snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${gutendex.cache.snapshot-interval-ms:300000}",
+               initialDelayString = "${gutendex.cache.snapshot-interval-ms:300000}")
+    void writeSnapshotIfChanged() {
+        if (changesSinceSnapshot.get() > 0) {
+            writeSnapshot();
+        }
+    }
+    
+    @PreDestroy
+    synchronized void writeSnapshot() {
+        if (snapshotFile.isBlank()) {
+            return;
+        }
+        long changes = changesSinceSnapshot.get();
+        Path target = Path.of(snapshotFile);
+        try {
+            Path tmp = Files.createTempFile(target.toAbsolutePath().getParent(), "gutendex-cache", ".tmp");
+            objectMapper.writeValue(tmp.toFile(), Map.copyOf(cache.asMap()));
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            changesSinceSnapshot.addAndGet(-changes);
+        } catch (IOException e) {
+            log.warn("Could not write Gutendex cache snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+    
+    record Entry(List<CachedBook> books, long expiresAt) {
+        
+        List<Book> toBooks() {
+            List<Book> result = new ArrayList<>(books.size());
+            for (CachedBook book : books) {
+                result.add(book.toEntity());
+            }
+            return result;
+        }
+    }
+    
+    record CachedBook(String title, String language, Integer downloadCount, List<CachedAuthor> authors) {
+        
+        static CachedBook fromEntity(Book book) {
+            return new CachedBook(book.getTitle(), book.getLanguage(), book.getDownloadCount(),
+                book.getAuthors().stream().map(CachedAuthor::fromEntity).toList());
+        }
+        
+        Book toEntity() {
+            Book book = new Book(title, language, downloadCount);
+            for (CachedAuthor author : authors) {
+                book.addAuthor(new Author(author.name(), author.birthYear(), author.deathYear()));
+            }
+            return book;
+        }
+    }
+    
+    record CachedAuthor(String name, Integer birthYear, Integer deathYear) {
+        
+        static CachedAuthor fromEntity(Author author) {
+            return new CachedAuthor(author.getName(), author.getBirthYear(), author.getDeathYear());
+        }
+    }
+    
+    private static class EntryExpiry implements Expiry<String, Entry> {
+        
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return Math.max(0, Duration.ofMillis(entry.expiresAt() - System.currentTimeMillis()).toNanos());
+        }
+        
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
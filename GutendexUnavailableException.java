@@ -0,0 +1,12 @@
+package com.bookapp.exception;
+
+public class GutendexUnavailableException extends RuntimeException {
+    
+    public GutendexUnavailableException(String message) {
+        super(message);
+    }
+    
+    public GutendexUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,18 +1,30 @@
 package com.bookapp.controller;
 
+import com.bookapp.config.ReadWriteRoutingDataSource;
 import com.bookapp.dto.ApiResponse;
 import com.bookapp.service.AuthorServiceEnhanced;
 import com.bookapp.service.BookServiceEnhanced;
+import com.bookapp.service.EntityCache;
+import com.bookapp.service.GutendexClient;
+import com.bookapp.service.GutendexHealth;
+import com.bookapp.service.GutendexSearchCache;
+import com.bookapp.service.SearchJobService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.sql.DataSource;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -22,16 +34,33 @@ public class HealthController {
     
     private final BookServiceEnhanced bookService;
     private final AuthorServiceEnhanced authorService;
+    private final GutendexSearchCache gutendexSearchCache;
+    private final GutendexHealth gutendexHealth;
+    private final GutendexClient gutendexClient;
+    private final EntityCache entityCache;
+    private final SearchJobService searchJobService;
+    private final HikariDataSource hikariDataSource;
+    private final ReadWriteRoutingDataSource routingDataSource;
     
     @Autowired
-    public HealthController(BookServiceEnhanced bookService, AuthorServiceEnhanced authorService) {
+    public HealthController(BookServiceEnhanced bookService, AuthorServiceEnhanced authorService,
+                            GutendexSearchCache gutendexSearchCache, GutendexHealth gutendexHealth,
+                            GutendexClient gutendexClient, EntityCache entityCache,
+                            SearchJobService searchJobService, DataSource dataSource) {
         this.bookService = bookService;
         this.authorService = authorService;
+        this.gutendexSearchCache = gutendexSearchCache;
+        this.gutendexHealth = gutendexHealth;
+        this.gutendexClient = gutendexClient;
+        this.entityCache = entityCache;
+        this.searchJobService = searchJobService;
+        this.hikariDataSource = unwrap(dataSource, HikariDataSource.class);
+        this.routingDataSource = unwrap(dataSource, ReadWriteRoutingDataSource.class);
     }
     
     @Operation(
         summary = "Health check",
-        description = "Check the health status of the application and database"
+        description = "Check the health status of the application and catalog totals. Served from in-memory counters"
     )
     @GetMapping
     public ResponseEntity<ApiResponse<Map<String, Object>>> healthCheck() {
@@ -46,4 +75,104 @@ public class HealthController {
             ApiResponse.success("Application is healthy", healthData)
         );
     }
-}
\ No newline at end of file
+    
+    @Operation(
+        summary = "Liveness probe",
+        description = "Returns 200 as long as the application can serve requests. Does no I/O"
+    )
+    @GetMapping("/live")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> liveness() {
+        return ResponseEntity.ok(
+            ApiResponse.success("Application is live", Map.of("status", "UP"))
+        );
+    }
+    
+    @Operation(
+        summary = "Readiness probe",
+        description = "Returns 200 when the primary database connection pool has live connections, 503 otherwise. "
+            + "Read replicas are reported but never make the application unready, since reads fall back to the primary. "
+            + "Gutendex reachability is reported from the last observed upstream call; an unreachable "
+            + "Gutendex only degrades search and does not make the application unready"
+    )
+    @GetMapping("/ready")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> readiness() {
+        Map<String, Object> database = databaseStatus();
+        boolean databaseUp = !"DOWN".equals(database.get("status"));
+        
+        Map<String, Object> readinessData = new LinkedHashMap<>();
+        readinessData.put("status", databaseUp ? (gutendexHealth.isReachable() ? "UP" : "DEGRADED") : "DOWN");
+        readinessData.put("database", database);
+        if (routingDataSource != null) {
+            readinessData.put("replicas", routingDataSource.getReplicaStatus());
+        }
+        readinessData.put("gutendex", gutendexHealth.getStatus());
+        readinessData.put("gutendexCircuit", gutendexClient.getCircuitState());
+        
+        if (!databaseUp) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ApiResponse<>("error", "Application is not ready", readinessData));
+        }
+        return ResponseEntity.ok(
+            ApiResponse.success("Application is ready", readinessData)
+        );
+    }
+    
+    @Operation(
+        summary = "Gutendex cache statistics",
+        description = "Size, hit/miss counts and evictions of the Gutendex search cache"
+    )
+    @GetMapping("/gutendex-cache")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> gutendexCacheStats() {
+        return ResponseEntity.ok(
+            ApiResponse.success("Gutendex cache statistics", gutendexSearchCache.getStats())
+        );
+    }
+    
+    @Operation(
+        summary = "Entity cache statistics",
+        description = "Hit/miss counts and hit ratios of the Hibernate second-level and query caches, overall and per region"
+    )
+    @GetMapping("/entity-cache")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> entityCacheStats() {
+        return ResponseEntity.ok(
+            ApiResponse.success("Entity cache statistics", entityCache.getStats())
+        );
+    }
+    
+    @Operation(
+        summary = "Search job queue statistics",
+        description = "Queue depth, free capacity, busy workers and rejected jobs of the asynchronous title search queue"
+    )
+    @GetMapping("/search-jobs")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> searchJobStats() {
+        return ResponseEntity.ok(
+            ApiResponse.success("Search job statistics", searchJobService.getStats())
+        );
+    }
+    
+    private Map<String, Object> databaseStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (hikariDataSource == null) {
+            status.put("status", "UNKNOWN");
+            return status;
+        }
+        HikariPoolMXBean pool = hikariDataSource.getHikariPoolMXBean();
+        boolean up = !hikariDataSource.isClosed() && pool != null && pool.getTotalConnections() > 0;
+        status.put("status", up ? "UP" : "DOWN");
+        if (pool != null) {
+            status.put("activeConnections", pool.getActiveConnections());
+            status.put("idleConnections", pool.getIdleConnections());
+            status.put("totalConnections", pool.getTotalConnections());
+            status.put("threadsAwaitingConnection", pool.getThreadsAwaitingConnection());
+        }
+        return status;
+    }
+    
+    private static <T> T unwrap(DataSource dataSource, Class<T> type) {
+        try {
+            return dataSource.isWrapperFor(type) ? dataSource.unwrap(type) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
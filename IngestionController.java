@@ -0,0 +1,68 @@
+package com.bookapp.controller;
+
+import com.bookapp.dto.ApiResponse;
+import com.bookapp.service.CatalogIngestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/ingestion")
+@Tag(name = "Ingestion", description = "Gutendex catalog ingestion API")
+public class IngestionController {
+    
+    private final CatalogIngestionService ingestionService;
+    
+    @Autowired
+    public IngestionController(CatalogIngestionService ingestionService) {
+        this.ingestionService = ingestionService;
+    }
+    
+    @Operation(
+        summary = "Start catalog ingestion",
+        description = "Start crawling the full Gutendex catalog in the background, resuming from the last checkpoint if one exists"
+    )
+    @PostMapping("/start")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> start() {
+        if (!ingestionService.start()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("Catalog ingestion is already running"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(ApiResponse.success("Catalog ingestion started", ingestionService.getStatus()));
+    }
+    
+    @Operation(
+        summary = "Stop catalog ingestion",
+        description = "Stop the running ingestion after the pages already fetched are persisted"
+    )
+    @PostMapping("/stop")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> stop() {
+        if (!ingestionService.stop()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("Catalog ingestion is not running"));
+        }
+        return ResponseEntity.ok(
+            ApiResponse.success("Catalog ingestion stopping", ingestionService.getStatus())
+        );
+    }
+    
+    @Operation(
+        summary = "Catalog ingestion status",
+        description = "Progress, throughput (pages/sec, books/sec) and checkpoint of the catalog ingestion"
+    )
+    @GetMapping("/status")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> status() {
+        return ResponseEntity.ok(
+            ApiResponse.success("Catalog ingestion status", ingestionService.getStatus())
+        );
+    }
+}
@@ -0,0 +1,136 @@
+package com.bookapp.index;
+
+import com.bookapp.dto.BookResponseDto;
+import com.bookapp.event.BookDeletedEvent;
+import com.bookapp.event.BooksCreatedEvent;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed book-id bitmap per language code. Book ids must fit in an int; if one doesn't, the
+ * index marks itself unusable and callers fall back to the database.
+ */
+@Component
+public class LanguageIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(LanguageIndex.class);
+    
+    private final Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    private volatile boolean overflowed;
+    
+    public boolean isReady() {
+        return ready && !overflowed;
+    }
+    
+    public void markReady() {
+        ready = true;
+    }
+    
+    public void add(Long id, String language) {
+        if (id == null || language == null) {
+            return;
+        }
+        if (id > Integer.MAX_VALUE) {
+            overflowed = true;
+            log.warn("Book id {} does not fit the language index, falling back to database queries", id);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            bitmaps.computeIfAbsent(language.toLowerCase(), key -> new RoaringBitmap()).add(id.intValue());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(Long id, String language) {
+        if (id == null || language == null || id > Integer.MAX_VALUE) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            RoaringBitmap bitmap = bitmaps.get(language.toLowerCase());
+            if (bitmap != null) {
+                bitmap.remove(id.intValue());
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(language.toLowerCase());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Drops every indexed id up to {@code upToId} that is not in {@code loadedIds}: books deleted
+     * since they were indexed, as seen by a reload that read ids up to {@code upToId}.
+     */
+    public void removeMissing(RoaringBitmap loadedIds, long upToId) {
+        long end = Math.min(upToId, Integer.MAX_VALUE) + 1;
+        lock.writeLock().lock();
+        try {
+            bitmaps.values().forEach(bitmap -> {
+                RoaringBitmap stale = RoaringBitmap.andNot(bitmap, loadedIds, 0L, end);
+                bitmap.andNot(stale);
+            });
+            bitmaps.values().removeIf(RoaringBitmap::isEmpty);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public List<Long> findIdsAfter(String language, long after, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            RoaringBitmap bitmap = bitmaps.get(language);
+            if (bitmap == null || after >= Integer.MAX_VALUE) {
+                return ids;
+            }
+            PeekableIntIterator iterator = bitmap.getIntIterator();
+            iterator.advanceIfNeeded((int) Math.max(after + 1, 0));
+            while (iterator.hasNext() && ids.size() < limit) {
+                ids.add((long) iterator.next());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        lock.readLock().lock();
+        try {
+            bitmaps.forEach((language, bitmap) -> counts.put(language, bitmap.getLongCardinality()));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+    
+    @TransactionalEventListener
+    public void onBooksCreated(BooksCreatedEvent event) {
+        for (BookResponseDto book : event.books()) {
+            add(book.getId(), book.getLanguage());
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onBookDeleted(BookDeletedEvent event) {
+        remove(event.id(), event.language());
+    }
+}
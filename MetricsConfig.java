@@ -0,0 +1,51 @@
+package com.bookapp.config;
+
+import com.bookapp.metrics.EntityLoadCountingIntegrator;
+import com.bookapp.metrics.RequestMetricsSessionListener;
+import com.bookapp.metrics.StatementMetricsListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    public HibernatePropertiesCustomizer requestMetricsHibernateCustomizer() {
+        return properties -> {
+            properties.put("hibernate.session.events.auto", RequestMetricsSessionListener.class.getName());
+            properties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(new EntityLoadCountingIntegrator()));
+        };
+    }
+    
+    /**
+     * Wraps the DataSource so every statement is counted and timed per request and slow ones are
+     * logged, replacing spring.jpa.show-sql.
+     */
+    @Bean
+    public static BeanPostProcessor statementMetricsDataSourceProxy(
+            @Value("${db.slow-query.threshold:200ms}") Duration slowQueryThreshold) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new StatementMetricsListener(slowQueryThreshold))
+                        .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
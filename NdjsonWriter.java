@@ -0,0 +1,56 @@
+package com.bookapp.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes one JSON document per line straight to the output stream. The first row is flushed
+ * immediately so clients see data before the export finishes, later rows every
+ * {@value #FLUSH_INTERVAL} rows.
+ */
+public class NdjsonWriter implements Closeable {
+    
+    private static final int FLUSH_INTERVAL = 256;
+    
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+    private long written;
+    
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out)
+            .setRootValueSeparator(new SerializedString("\n"));
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+    
+    public void write(Object value) {
+        try {
+            writer.writeValue(generator, value);
+            written++;
+            if (written == 1 || written % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public long getWritten() {
+        return written;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (written > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+}
@@ -0,0 +1,30 @@
+package com.bookapp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Keyset-paginated list wrapper")
+public class PageResponseDto<T> {
+    
+    @Schema(description = "Items in this page")
+    private List<T> items;
+    
+    @Schema(description = "Cursor to pass as 'after' for the next page, null when there are no more items", example = "50")
+    private Long nextCursor;
+    
+    @Schema(description = "Requested page size", example = "50")
+    private int limit;
+    
+    public static <T> PageResponseDto<T> of(List<T> items, int limit, Function<T, Long> idExtractor) {
+        Long nextCursor = items.size() < limit ? null : idExtractor.apply(items.get(items.size() - 1));
+        return new PageResponseDto<>(items, nextCursor, limit);
+    }
+}
@@ -0,0 +1,246 @@
+package com.bookapp.config;
+
+import com.bookapp.dto.ApiResponse;
+import com.bookapp.dto.AuthorResponseDto;
+import com.bookapp.dto.BookBatchResultDto;
+import com.bookapp.dto.BookResponseDto;
+import com.bookapp.dto.PageResponseDto;
+import com.bookapp.dto.SearchJobDto;
+import com.bookapp.proto.CatalogProtos;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes {@link ApiResponse} bodies as {@code application/x-protobuf} using the messages in
+ * {@code catalog.proto}. The payload type is taken from the handler's declared return type, so
+ * empty lists and pages still populate the matching {@code data} field. Handlers whose declared
+ * payload has no message, such as the health and ingestion maps, are not offered protobuf and
+ * answer 406 to clients that accept nothing else.
+ */
+public class ProtobufApiResponseHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    
+    public ProtobufApiResponseHttpMessageConverter() {
+        super(ProtobufHttpMessageConverter.PROTOBUF);
+    }
+    
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ApiResponse.class.isAssignableFrom(clazz);
+    }
+    
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(clazz, mediaType)) {
+            return false;
+        }
+        return type == null || isMapped(ResolvableType.forType(type).as(ApiResponse.class).getGeneric(0));
+    }
+    
+    /**
+     * Whether a declared payload type has a protobuf message. A payload declared as {@code ?} or
+     * {@code Object} is only known when written and is accepted here.
+     */
+    static boolean isMapped(ResolvableType dataType) {
+        Class<?> data = dataType.resolve();
+        if (data == null || data == Object.class) {
+            return true;
+        }
+        if (data == BookResponseDto.class || data == AuthorResponseDto.class || data == SearchJobDto.class) {
+            return true;
+        }
+        Class<?> element = dataType.getGeneric(0).resolve();
+        if (PageResponseDto.class.isAssignableFrom(data)) {
+            return element == BookResponseDto.class || element == AuthorResponseDto.class;
+        }
+        if (List.class.isAssignableFrom(data)) {
+            return element == BookResponseDto.class || element == AuthorResponseDto.class
+                || element == BookBatchResultDto.class;
+        }
+        if (Map.class.isAssignableFrom(data)) {
+            Class<?> value = dataType.getGeneric(1).resolve();
+            return value != null && Number.class.isAssignableFrom(value);
+        }
+        return false;
+    }
+    
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+    
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+    
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        toMessage((ApiResponse<?>) body, type).writeTo(outputMessage.getBody());
+    }
+    
+    public static CatalogProtos.ApiResponse toMessage(ApiResponse<?> response, Type type) {
+        CatalogProtos.ApiResponse.Builder builder = CatalogProtos.ApiResponse.newBuilder()
+            .setStatus(nullToEmpty(response.getStatus()))
+            .setMessage(nullToEmpty(response.getMessage()));
+        Object data = response.getData();
+        if (data == null) {
+            return builder.build();
+        }
+        
+        ResolvableType dataType = type == null
+            ? ResolvableType.NONE
+            : ResolvableType.forType(type).as(ApiResponse.class).getGeneric(0);
+        if (data instanceof BookResponseDto book) {
+            builder.setBook(toMessage(book));
+        } else if (data instanceof AuthorResponseDto author) {
+            builder.setAuthor(toMessage(author));
+        } else if (data instanceof SearchJobDto job) {
+            builder.setSearchJob(toMessage(job));
+        } else if (data instanceof PageResponseDto<?> page) {
+            Class<?> elementType = elementType(dataType, page.getItems());
+            if (elementType == BookResponseDto.class) {
+                CatalogProtos.BookPage.Builder bookPage = CatalogProtos.BookPage.newBuilder().setLimit(page.getLimit());
+                page.getItems().forEach(item -> bookPage.addItems(toMessage((BookResponseDto) item)));
+                if (page.getNextCursor() != null) {
+                    bookPage.setNextCursor(page.getNextCursor());
+                }
+                builder.setBookPage(bookPage);
+            } else if (elementType == AuthorResponseDto.class) {
+                CatalogProtos.AuthorPage.Builder authorPage = CatalogProtos.AuthorPage.newBuilder().setLimit(page.getLimit());
+                page.getItems().forEach(item -> authorPage.addItems(toMessage((AuthorResponseDto) item)));
+                if (page.getNextCursor() != null) {
+                    authorPage.setNextCursor(page.getNextCursor());
+                }
+                builder.setAuthorPage(authorPage);
+            } else if (elementType != null) {
+                throw unsupported(elementType);
+            }
+        } else if (data instanceof List<?> items) {
+            Class<?> elementType = elementType(dataType, items);
+            if (elementType == BookResponseDto.class) {
+                CatalogProtos.BookList.Builder books = CatalogProtos.BookList.newBuilder();
+                items.forEach(item -> books.addItems(toMessage((BookResponseDto) item)));
+                builder.setBooks(books);
+            } else if (elementType == AuthorResponseDto.class) {
+                CatalogProtos.AuthorList.Builder authors = CatalogProtos.AuthorList.newBuilder();
+                items.forEach(item -> authors.addItems(toMessage((AuthorResponseDto) item)));
+                builder.setAuthors(authors);
+            } else if (elementType == BookBatchResultDto.class) {
+                CatalogProtos.BookBatchResultList.Builder results = CatalogProtos.BookBatchResultList.newBuilder();
+                items.forEach(item -> results.addItems(toMessage((BookBatchResultDto) item)));
+                builder.setBatchResults(results);
+            } else if (elementType != null) {
+                throw unsupported(elementType);
+            }
+        } else if (data instanceof Map<?, ?> counts) {
+            CatalogProtos.LanguageCounts.Builder languageCounts = CatalogProtos.LanguageCounts.newBuilder();
+            for (Map.Entry<?, ?> entry : counts.entrySet()) {
+                if (!(entry.getValue() instanceof Number count)) {
+                    throw unsupported(entry.getValue() == null ? Object.class : entry.getValue().getClass());
+                }
+                languageCounts.putCounts(String.valueOf(entry.getKey()), count.longValue());
+            }
+            builder.setLanguageCounts(languageCounts);
+        } else {
+            throw unsupported(data.getClass());
+        }
+        return builder.build();
+    }
+    
+    private static CatalogProtos.Book toMessage(BookResponseDto book) {
+        CatalogProtos.Book.Builder builder = CatalogProtos.Book.newBuilder()
+            .setId(book.getId())
+            .setTitle(nullToEmpty(book.getTitle()))
+            .setLanguage(nullToEmpty(book.getLanguage()));
+        if (book.getDownloadCount() != null) {
+            builder.setDownloadCount(book.getDownloadCount());
+        }
+        if (book.getAuthors() != null) {
+            book.getAuthors().forEach(author -> builder.addAuthors(toMessage(author)));
+        }
+        return builder.build();
+    }
+    
+    private static CatalogProtos.Author toMessage(AuthorResponseDto author) {
+        CatalogProtos.Author.Builder builder = CatalogProtos.Author.newBuilder()
+            .setId(author.getId())
+            .setName(nullToEmpty(author.getName()));
+        if (author.getBirthYear() != null) {
+            builder.setBirthYear(author.getBirthYear());
+        }
+        if (author.getDeathYear() != null) {
+            builder.setDeathYear(author.getDeathYear());
+        }
+        return builder.build();
+    }
+    
+    private static CatalogProtos.BookBatchResult toMessage(BookBatchResultDto result) {
+        CatalogProtos.BookBatchResult.Builder builder = CatalogProtos.BookBatchResult.newBuilder()
+            .setTitle(nullToEmpty(result.getTitle()))
+            .setStatus(nullToEmpty(result.getStatus()));
+        if (result.getMessage() != null) {
+            builder.setMessage(result.getMessage());
+        }
+        if (result.getBook() != null) {
+            builder.setBook(toMessage(result.getBook()));
+        }
+        return builder.build();
+    }
+    
+    private static CatalogProtos.SearchJob toMessage(SearchJobDto job) {
+        CatalogProtos.SearchJob.Builder builder = CatalogProtos.SearchJob.newBuilder()
+            .setId(nullToEmpty(job.getId()))
+            .setTitle(nullToEmpty(job.getTitle()))
+            .setStatus(nullToEmpty(job.getStatus()));
+        if (job.getMessage() != null) {
+            builder.setMessage(job.getMessage());
+        }
+        if (job.getBook() != null) {
+            builder.setBook(toMessage(job.getBook()));
+        }
+        if (job.getCreatedAt() != null) {
+            builder.setCreatedAt(job.getCreatedAt().toEpochMilli());
+        }
+        if (job.getCompletedAt() != null) {
+            builder.setCompletedAt(job.getCompletedAt().toEpochMilli());
+        }
+        return builder.build();
+    }
+    
+    private static Class<?> elementType(ResolvableType collectionType, List<?> items) {
+        Class<?> declared = collectionType.getGeneric(0).resolve();
+        if (declared != null && declared != Object.class) {
+            return declared;
+        }
+        return items == null || items.isEmpty() ? null : items.get(0).getClass();
+    }
+    
+    private static HttpMessageNotWritableException unsupported(Class<?> type) {
+        return new HttpMessageNotWritableException("No protobuf mapping for " + type.getName());
+    }
+    
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,253 @@
+package com.bookapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica, round-robin, and everything
+ * else to the primary. Reads also go to the primary for a read-your-writes window after a
+ * transaction that executed DML commits, and whenever no replica is healthy. A replica that refuses a connection or lags more
+ * than the allowed replication delay is skipped until the next successful health check, so the
+ * window must be at least that delay for a caller to be sure of seeing its own write.
+ *
+ * <p>{@link ReplicaReadsJpaDialect} decides the route when a read-only transaction begins
+ * ({@link #pinReadRoute()}), so the transaction's connection follows the same decision.
+ *
+ * <p>Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is fetched after the transaction's read-only flag has been set.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements Closeable {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+    
+    private final HikariDataSource primary;
+    private final DataSource writeTrackingPrimary;
+    private final List<Replica> replicas;
+    private final long readYourWritesNanos;
+    private final long maxLagMillis;
+    private final String lagQuery;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ThreadLocal<Boolean> pinnedToReplica = new ThreadLocal<>();
+    private volatile long lastWriteAt;
+    
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                      Duration readYourWritesWindow, Duration maxLag, String lagQuery) {
+        if (readYourWritesWindow.compareTo(maxLag) < 0) {
+            throw new IllegalArgumentException("db.replica.read-your-writes-window (" + readYourWritesWindow
+                + ") must be at least db.replica.max-lag (" + maxLag + ")");
+        }
+        this.primary = primary;
+        this.writeTrackingPrimary = ProxyDataSourceBuilder.create(primary)
+            .afterQuery((execInfo, queries) -> {
+                if (queries.stream().anyMatch(query -> QueryUtils.getQueryType(query.getQuery()) != QueryType.SELECT)) {
+                    rememberWriteAfterCommit();
+                }
+            })
+            .build();
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+        this.maxLagMillis = maxLag.toMillis();
+        this.lagQuery = lagQuery;
+        this.lastWriteAt = System.nanoTime() - readYourWritesNanos;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = selectReplica();
+        if (replica == null) {
+            return writeTrackingPrimary.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            replica.markDown(e.getMessage());
+            return writeTrackingPrimary.getConnection();
+        }
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = selectReplica();
+        if (replica == null) {
+            return writeTrackingPrimary.getConnection(username, password);
+        }
+        try {
+            return replica.dataSource.getConnection(username, password);
+        } catch (SQLException e) {
+            replica.markDown(e.getMessage());
+            return writeTrackingPrimary.getConnection(username, password);
+        }
+    }
+    
+    /**
+     * Decides whether the read-only transaction beginning on this thread reads from a replica and
+     * keeps the decision until {@link #unpinReadRoute()}. Returns {@code true} for a replica.
+     */
+    public boolean pinReadRoute() {
+        boolean replica = !withinReadYourWritesWindow() && replicas.stream().anyMatch(candidate -> candidate.healthy);
+        pinnedToReplica.set(replica);
+        return replica;
+    }
+    
+    public void unpinReadRoute() {
+        pinnedToReplica.remove();
+    }
+    
+    private boolean withinReadYourWritesWindow() {
+        return System.nanoTime() - lastWriteAt < readYourWritesNanos;
+    }
+    
+    private Replica selectReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        Boolean pinned = pinnedToReplica.get();
+        if (pinned != null ? !pinned : withinReadYourWritesWindow()) {
+            return null;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Opens the read-your-writes window when the current transaction commits, once per
+     * transaction. Called for statements other than SELECT, so a read-write transaction that only
+     * read leaves the window alone. Outside a transaction the write is already committed.
+     */
+    private void rememberWriteAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lastWriteAt = System.nanoTime();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteAt = System.nanoTime();
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReadWriteRoutingDataSource.this);
+            }
+        });
+    }
+    
+    /**
+     * Probes every replica: it must hand out a valid connection and, when a lag query is
+     * configured, report a replication delay within the limit.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(2)) {
+                    replica.markDown("connection is not valid");
+                    continue;
+                }
+                long lagMillis = 0;
+                if (!lagQuery.isBlank()) {
+                    try (Statement statement = connection.createStatement();
+                         ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                        lagMillis = resultSet.next() ? resultSet.getLong(1) : 0;
+                    }
+                }
+                replica.lagMillis = lagMillis;
+                if (lagMillis > maxLagMillis) {
+                    replica.markDown("replication lag " + lagMillis + " ms");
+                } else {
+                    replica.markUp();
+                }
+            } catch (SQLException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+    }
+    
+    public Map<String, Object> getReplicaStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> replicaStatus = new LinkedHashMap<>();
+            replicaStatus.put("status", replica.healthy ? "UP" : "DOWN");
+            replicaStatus.put("lagMillis", replica.lagMillis);
+            replicaStatus.put("lastFailure", replica.lastFailure);
+            replicaStatus.put("lastError", replica.healthy ? null : replica.lastError);
+            status.put(replica.dataSource.getPoolName(), replicaStatus);
+        }
+        return status;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : primary.unwrap(iface);
+    }
+    
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+    
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+    
+    private static final class Replica {
+        
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile long lagMillis;
+        private volatile Instant lastFailure;
+        private volatile String lastError;
+        
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+        
+        private void markDown(String error) {
+            if (healthy) {
+                log.warn("Replica {} is unavailable, reads fall back to the primary: {}", dataSource.getPoolName(), error);
+            }
+            healthy = false;
+            lastFailure = Instant.now();
+            lastError = error;
+        }
+        
+        private void markUp() {
+            if (!healthy) {
+                log.info("Replica {} is available again", dataSource.getPoolName());
+            }
+            healthy = true;
+        }
+    }
+}
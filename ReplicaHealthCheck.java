@@ -0,0 +1,26 @@
+package com.bookapp.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Component
+@ConditionalOnProperty(name = "db.replica.urls")
+public class ReplicaHealthCheck {
+    
+    private final ReadWriteRoutingDataSource routingDataSource;
+    
+    @Autowired
+    public ReplicaHealthCheck(DataSource dataSource) throws SQLException {
+        this.routingDataSource = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+    }
+    
+    @Scheduled(fixedDelayString = "${db.replica.health-check-interval-ms:5000}")
+    public void check() {
+        routingDataSource.checkReplicas();
+    }
+}
@@ -0,0 +1,63 @@
+package com.bookapp.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Pins the route of each read-only transaction when it begins and, when that route is a replica,
+ * switches the session to {@link CacheMode#GET}: the transaction still reads the second-level and
+ * query caches but does not put rows into them that may be behind the primary.
+ */
+public class ReplicaReadsJpaDialect extends HibernateJpaDialect {
+    
+    private final ReadWriteRoutingDataSource routingDataSource;
+    
+    public ReplicaReadsJpaDialect(ReadWriteRoutingDataSource routingDataSource) {
+        this.routingDataSource = routingDataSource;
+    }
+    
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        if (!definition.isReadOnly()) {
+            return super.beginTransaction(entityManager, definition);
+        }
+        boolean replica = routingDataSource.pinReadRoute();
+        Object transactionData;
+        try {
+            transactionData = super.beginTransaction(entityManager, definition);
+        } catch (SQLException | RuntimeException e) {
+            routingDataSource.unpinReadRoute();
+            throw e;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previousCacheMode = session.getCacheMode();
+        if (replica) {
+            session.setCacheMode(CacheMode.GET);
+        }
+        return new ReadOnlyTransactionData(transactionData, session, previousCacheMode);
+    }
+    
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (!(transactionData instanceof ReadOnlyTransactionData readOnly)) {
+            super.cleanupTransaction(transactionData);
+            return;
+        }
+        try {
+            readOnly.session().setCacheMode(readOnly.previousCacheMode());
+            super.cleanupTransaction(readOnly.delegate());
+        } finally {
+            routingDataSource.unpinReadRoute();
+        }
+    }
+    
+    private record ReadOnlyTransactionData(Object delegate, Session session, CacheMode previousCacheMode) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.bookapp.metrics;
+
+import com.bookapp.exception.QueryBudgetExceededException;
+
+/**
+ * Per-thread counters for the request being served. The holder object is reused across
+ * requests on the same thread, so recording allocates nothing on the hot path. A request that
+ * goes async takes its holder along: it is kept as a request attribute and attached to whichever
+ * thread continues the work.
+ */
+public final class RequestMetrics {
+    
+    static final String ATTRIBUTE = RequestMetrics.class.getName();
+    
+    private static final ThreadLocal<RequestMetrics> CURRENT = ThreadLocal.withInitial(RequestMetrics::new);
+    
+    private boolean active;
+    private int statementBudget;
+    private String budgetedEndpoint;
+    private boolean budgetExceeded;
+    private int statements;
+    private long statementMillis;
+    private int entityLoads;
+    private long connectionWaitNanos;
+    private long connectionAcquisitionStartedAt;
+    
+    private RequestMetrics() {
+    }
+    
+    public static RequestMetrics begin() {
+        RequestMetrics metrics = CURRENT.get();
+        metrics.active = true;
+        metrics.statements = 0;
+        metrics.statementMillis = 0;
+        metrics.entityLoads = 0;
+        metrics.connectionWaitNanos = 0;
+        metrics.connectionAcquisitionStartedAt = 0;
+        metrics.statementBudget = 0;
+        metrics.budgetedEndpoint = null;
+        metrics.budgetExceeded = false;
+        return metrics;
+    }
+    
+    public void end() {
+        active = false;
+    }
+    
+    /**
+     * Fails the statement that would take the request past {@code maxStatements}, while the
+     * response is still uncommitted and the error can be reported as such.
+     */
+    public void enforceStatementBudget(int maxStatements, String endpoint) {
+        statementBudget = maxStatements;
+        budgetedEndpoint = endpoint;
+    }
+    
+    public boolean isBudgetExceeded() {
+        return budgetExceeded;
+    }
+    
+    public int getStatements() {
+        return statements;
+    }
+    
+    public long getStatementMillis() {
+        return statementMillis;
+    }
+    
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+    
+    public long getConnectionWaitNanos() {
+        return connectionWaitNanos;
+    }
+    
+    /**
+     * Makes these counters the current thread's while async work of the request runs on it. That
+     * work is counted but no longer failed: a streamed response is already committed by then.
+     */
+    void attach() {
+        statementBudget = 0;
+        CURRENT.set(this);
+    }
+    
+    /**
+     * Takes the current thread's counters off it, so a request continuing on another thread does
+     * not share them with the next request served here.
+     */
+    static void detach() {
+        CURRENT.remove();
+    }
+    
+    static void beforeStatement() {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics.active && metrics.statementBudget > 0 && metrics.statements >= metrics.statementBudget) {
+            metrics.budgetExceeded = true;
+            throw new QueryBudgetExceededException(String.format(
+                "%s issued more than %d SQL statements (%d ms so far)",
+                metrics.budgetedEndpoint, metrics.statementBudget, metrics.statementMillis));
+        }
+    }
+    
+    static void statementExecuted(long elapsedMillis) {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics.active) {
+            metrics.statements++;
+            metrics.statementMillis += elapsedMillis;
+        }
+    }
+    
+    static void entityLoaded() {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics.active) {
+            metrics.entityLoads++;
+        }
+    }
+    
+    static void connectionAcquisitionStarted() {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics.active) {
+            metrics.connectionAcquisitionStartedAt = System.nanoTime();
+        }
+    }
+    
+    static void connectionAcquisitionEnded() {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics.active && metrics.connectionAcquisitionStartedAt != 0) {
+            metrics.connectionWaitNanos += System.nanoTime() - metrics.connectionAcquisitionStartedAt;
+            metrics.connectionAcquisitionStartedAt = 0;
+        }
+    }
+}
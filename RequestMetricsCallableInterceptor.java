@@ -0,0 +1,26 @@
+package com.bookapp.metrics;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Carries a request's {@link RequestMetrics} onto the executor thread that runs its Callable or
+ * StreamingResponseBody, so the statements issued there count towards the request.
+ */
+public class RequestMetricsCallableInterceptor implements CallableProcessingInterceptor {
+    
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(RequestMetrics.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof RequestMetrics metrics) {
+            metrics.attach();
+        }
+    }
+    
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        RequestMetrics.detach();
+    }
+}
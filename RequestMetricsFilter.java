@@ -0,0 +1,191 @@
+package com.bookapp.metrics;
+
+import com.bookapp.exception.QueryBudgetExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records, per endpoint, how many JDBC statements and entity loads each request caused, how long
+ * its statements ran and how long it waited for pooled connections. Latency itself is covered by
+ * {@code http.server.requests}. Async requests are recorded when they complete, including the
+ * work done by their Callable or StreamingResponseBody (see {@link RequestMetricsCallableInterceptor}).
+ *
+ * <p>A request issuing more statements than {@code db.query-budget.max-statements} is logged as a
+ * warning, which is how N+1 loads show up. With {@code db.query-budget.strict=true}, meant for
+ * tests, the statement over the budget fails with {@link QueryBudgetExceededException} before it
+ * runs, so the request ends in an error response instead of a committed 200.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+    
+    private final MeterRegistry meterRegistry;
+    private final Map<String, EndpointMeters> meters = new ConcurrentHashMap<>();
+    private final int maxStatements;
+    private final boolean strictBudget;
+    private final List<String> exemptPatterns;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    
+    @Autowired
+    public RequestMetricsFilter(MeterRegistry meterRegistry,
+                                @Value("${db.query-budget.max-statements:20}") int maxStatements,
+                                @Value("${db.query-budget.strict:false}") boolean strictBudget,
+                                @Value("${db.query-budget.exempt:}") String[] exemptPatterns) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.strictBudget = strictBudget;
+        this.exemptPatterns = List.of(exemptPatterns);
+    }
+    
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            continueAsync(request, response, filterChain);
+            return;
+        }
+        
+        RequestMetrics metrics = RequestMetrics.begin();
+        request.setAttribute(RequestMetrics.ATTRIBUTE, metrics);
+        boolean exempt = isExempt(request);
+        if (strictBudget && !exempt) {
+            metrics.enforceStatementBudget(maxStatements, request.getMethod() + " " + request.getRequestURI());
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                RequestMetrics.detach();
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        metrics.end();
+                        record(request, metrics, exempt);
+                    }
+                    
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+                    
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+                    
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                metrics.end();
+                record(request, metrics, exempt);
+            }
+        }
+    }
+    
+    /** The dispatch that writes an async result runs with the request's counters attached. */
+    private void continueAsync(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!(request.getAttribute(RequestMetrics.ATTRIBUTE) instanceof RequestMetrics metrics)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        metrics.attach();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestMetrics.detach();
+        }
+    }
+    
+    private void record(HttpServletRequest request, RequestMetrics metrics, boolean exempt) {
+        boolean overBudget = metrics.isBudgetExceeded() || (!exempt && metrics.getStatements() > maxStatements);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            EndpointMeters endpoint = meters.computeIfAbsent(request.getMethod() + " " + pattern,
+                key -> new EndpointMeters(meterRegistry, request.getMethod(), pattern.toString()));
+            endpoint.statements.record(metrics.getStatements());
+            endpoint.statementTime.record(metrics.getStatementMillis(), TimeUnit.MILLISECONDS);
+            endpoint.entityLoads.record(metrics.getEntityLoads());
+            endpoint.connectionWait.record(metrics.getConnectionWaitNanos(), TimeUnit.NANOSECONDS);
+            if (overBudget) {
+                endpoint.budgetExceeded.increment();
+            }
+        }
+        if (overBudget && !metrics.isBudgetExceeded()) {
+            log.warn("{} {} issued {} SQL statements ({} ms), over the budget of {}",
+                request.getMethod(), pattern != null ? pattern : request.getRequestURI(),
+                metrics.getStatements(), metrics.getStatementMillis(), maxStatements);
+        }
+    }
+    
+    private boolean isExempt(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : exemptPatterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static final class EndpointMeters {
+        
+        private final DistributionSummary statements;
+        private final Timer statementTime;
+        private final DistributionSummary entityLoads;
+        private final Timer connectionWait;
+        private final Counter budgetExceeded;
+        
+        EndpointMeters(MeterRegistry registry, String method, String uri) {
+            this.statements = DistributionSummary.builder("bookapp.request.jdbc.statements")
+                .description("JDBC statements executed per request")
+                .tags("method", method, "uri", uri)
+                .register(registry);
+            this.statementTime = Timer.builder("bookapp.request.jdbc.time")
+                .description("Time spent executing JDBC statements per request")
+                .tags("method", method, "uri", uri)
+                .register(registry);
+            this.entityLoads = DistributionSummary.builder("bookapp.request.entity.loads")
+                .description("Hibernate entities loaded per request")
+                .tags("method", method, "uri", uri)
+                .register(registry);
+            this.connectionWait = Timer.builder("bookapp.request.jdbc.connection.wait")
+                .description("Time spent waiting for pooled JDBC connections per request")
+                .tags("method", method, "uri", uri)
+                .register(registry);
+            this.budgetExceeded = Counter.builder("bookapp.request.jdbc.budget.exceeded")
+                .description("Requests that issued more JDBC statements than the query budget")
+                .tags("method", method, "uri", uri)
+                .register(registry);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.bookapp.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Registered for every Hibernate session through {@code hibernate.session.events.auto}.
+ * Statements are counted at the DataSource by {@link StatementMetricsListener}.
+ */
+public class RequestMetricsSessionListener extends BaseSessionEventListener {
+    
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        RequestMetrics.connectionAcquisitionStarted();
+    }
+    
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestMetrics.connectionAcquisitionEnded();
+    }
+}
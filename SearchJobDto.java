@@ -0,0 +1,42 @@
+package com.bookapp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Asynchronous book search job")
+public class SearchJobDto {
+    
+    public static final String QUEUED = "queued";
+    public static final String RUNNING = "running";
+    public static final String SAVED = "saved";
+    public static final String NOT_FOUND = "not_found";
+    public static final String ERROR = "error";
+    
+    @Schema(description = "Job ID", example = "6f1c2a9e-4b7d-4a51-9f3e-2a8c0d1e5b77")
+    private String id;
+    
+    @Schema(description = "Requested title", example = "Dom Casmurro")
+    private String title;
+    
+    @Schema(description = "Job status", example = "saved", allowableValues = {QUEUED, RUNNING, SAVED, NOT_FOUND, ERROR})
+    private String status;
+    
+    @Schema(description = "Error detail when the job did not save a book")
+    private String message;
+    
+    @Schema(description = "Saved book, present when status is 'saved'")
+    private BookResponseDto book;
+    
+    @Schema(description = "When the job was accepted")
+    private Instant createdAt;
+    
+    @Schema(description = "When the job finished, null while queued or running")
+    private Instant completedAt;
+}
@@ -0,0 +1,199 @@
+package com.bookapp.service;
+
+import com.bookapp.dto.BookResponseDto;
+import com.bookapp.dto.SearchJobDto;
+import com.bookapp.exception.BookNotFoundException;
+import com.bookapp.util.TextNormalizer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs title searches in the background for clients that only need the book to exist eventually.
+ * At most {@code workers} jobs run {@link BookServiceEnhanced#saveBookFromGutendex} at once, with
+ * up to {@code queue-capacity} more waiting; beyond that new jobs are rejected instead of queued.
+ * With virtual threads every job gets its own thread and the worker limit is a semaphore;
+ * otherwise a fixed pool of that many platform threads runs them. Submitting a title that is
+ * already queued or running returns the existing job, and finished jobs stay queryable for the
+ * configured retention.
+ */
+@Service
+public class SearchJobService {
+    
+    private final BookServiceEnhanced bookService;
+    private final ExecutorService executor;
+    private final Semaphore workerPermits;
+    private final int workerCount;
+    private final int queueCapacity;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final Cache<String, Job> jobs;
+    private final Map<String, Job> pendingByTitle = new ConcurrentHashMap<>();
+    private final Counter rejected;
+    
+    @Autowired
+    public SearchJobService(BookServiceEnhanced bookService, MeterRegistry meterRegistry,
+                            @Value("${gutendex.search-jobs.workers:8}") int workerCount,
+                            @Value("${gutendex.search-jobs.queue-capacity:1000}") int queueCapacity,
+                            @Value("${gutendex.search-jobs.retention:1h}") Duration retention,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.bookService = bookService;
+        this.workerCount = workerCount;
+        this.queueCapacity = queueCapacity;
+        this.workerPermits = new Semaphore(workerCount, true);
+        this.executor = virtualThreads
+            ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("search-job-", 1).factory())
+            : Executors.newFixedThreadPool(workerCount, Thread.ofPlatform().name("search-job-", 1).daemon(true).factory());
+        this.jobs = Caffeine.newBuilder()
+            .expireAfterWrite(retention)
+            .build();
+        
+        Gauge.builder("bookapp.search.jobs.queue.depth", waiting, AtomicInteger::get)
+            .description("Search jobs waiting for a worker")
+            .register(meterRegistry);
+        Gauge.builder("bookapp.search.jobs.queue.remaining", waiting, count -> queueCapacity - count.get())
+            .description("Free slots in the search job queue")
+            .register(meterRegistry);
+        Gauge.builder("bookapp.search.jobs.workers.active", running, AtomicInteger::get)
+            .description("Workers currently running a search job")
+            .register(meterRegistry);
+        Gauge.builder("bookapp.search.jobs.workers.utilization", running, count -> (double) count.get() / workerCount)
+            .description("Share of search job workers that are busy")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("bookapp.search.jobs.rejected")
+            .description("Search jobs rejected because the queue was full")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * @throws RejectedExecutionException when the queue is full
+     */
+    public SearchJobDto submit(String title) {
+        String key = TextNormalizer.normalize(title);
+        Job job = new Job(UUID.randomUUID().toString(), title);
+        Job existing = pendingByTitle.putIfAbsent(key, job);
+        if (existing != null) {
+            return existing.toDto();
+        }
+        
+        if (waiting.incrementAndGet() > queueCapacity) {
+            waiting.decrementAndGet();
+            pendingByTitle.remove(key, job);
+            rejected.increment();
+            throw new RejectedExecutionException("Search job queue is full");
+        }
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(key, job));
+        } catch (RejectedExecutionException e) {
+            waiting.decrementAndGet();
+            pendingByTitle.remove(key, job);
+            jobs.invalidate(job.id);
+            rejected.increment();
+            throw e;
+        }
+        return job.toDto();
+    }
+    
+    public SearchJobDto getJob(String id) {
+        Job job = jobs.getIfPresent(id);
+        return job == null ? null : job.toDto();
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("queueDepth", waiting.get());
+        data.put("queueRemainingCapacity", queueCapacity - waiting.get());
+        data.put("activeWorkers", running.get());
+        data.put("workers", workerCount);
+        data.put("completedJobs", completed.get());
+        data.put("rejectedJobs", (long) rejected.count());
+        data.put("retainedJobs", jobs.estimatedSize());
+        return data;
+    }
+    
+    private void run(String key, Job job) {
+        try {
+            workerPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            waiting.decrementAndGet();
+            pendingByTitle.remove(key, job);
+            job.finish(SearchJobDto.ERROR, "Shutting down");
+            return;
+        }
+        waiting.decrementAndGet();
+        running.incrementAndGet();
+        job.status = SearchJobDto.RUNNING;
+        try {
+            BookResponseDto book = bookService.saveBookFromGutendex(job.title);
+            if (book == null) {
+                job.finish(SearchJobDto.NOT_FOUND, "No book found with title: " + job.title);
+            } else {
+                job.book = book;
+                job.finish(SearchJobDto.SAVED, null);
+            }
+        } catch (BookNotFoundException e) {
+            job.finish(SearchJobDto.NOT_FOUND, e.getMessage());
+        } catch (RuntimeException e) {
+            job.finish(SearchJobDto.ERROR, e.getMessage());
+        } finally {
+            pendingByTitle.remove(key, job);
+            jobs.put(job.id, job);
+            running.decrementAndGet();
+            completed.incrementAndGet();
+            workerPermits.release();
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private static final class Job {
+        
+        private final String id;
+        private final String title;
+        private final Instant createdAt = Instant.now();
+        private volatile String status = SearchJobDto.QUEUED;
+        private volatile String message;
+        private volatile BookResponseDto book;
+        private volatile Instant completedAt;
+        
+        private Job(String id, String title) {
+            this.id = id;
+            this.title = title;
+        }
+        
+        private void finish(String status, String message) {
+            this.message = message;
+            this.completedAt = Instant.now();
+            this.status = status;
+        }
+        
+        private SearchJobDto toDto() {
+            return new SearchJobDto(id, title, status, message, book, createdAt, completedAt);
+        }
+    }
+}
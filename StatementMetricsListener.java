@@ -0,0 +1,75 @@
+package com.bookapp.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Sees every statement at the DataSource, whether it comes from Hibernate, Spring Data or a
+ * JdbcTemplate. Each execution is added to the current request's {@link RequestMetrics}, which
+ * may refuse it beforehand when a strict budget is spent; only statements slower than the
+ * threshold are logged, with their bind values and endpoint.
+ */
+public class StatementMetricsListener implements QueryExecutionListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(StatementMetricsListener.class);
+    private static final int MAX_LOGGED_BATCH_ENTRIES = 5;
+    
+    private final long slowQueryThresholdMillis;
+    
+    public StatementMetricsListener(Duration slowQueryThreshold) {
+        this.slowQueryThresholdMillis = slowQueryThreshold.toMillis();
+    }
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestMetrics.beforeStatement();
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMillis = execInfo.getElapsedTime();
+        RequestMetrics.statementExecuted(elapsedMillis);
+        if (elapsedMillis >= slowQueryThresholdMillis && log.isWarnEnabled()) {
+            for (QueryInfo query : queryInfoList) {
+                log.warn("Slow query ({} ms) on {}: {} params {}",
+                    elapsedMillis, currentEndpoint(), query.getQuery(), formatParameters(query));
+            }
+        }
+    }
+    
+    private static String formatParameters(QueryInfo query) {
+        List<List<ParameterSetOperation>> parametersList = query.getParametersList();
+        String formatted = parametersList.stream()
+            .limit(MAX_LOGGED_BATCH_ENTRIES)
+            .map(parameters -> parameters.stream()
+                .map(operation -> String.valueOf(operation.getArgs()[1]))
+                .collect(Collectors.joining(", ", "[", "]")))
+            .collect(Collectors.joining(", "));
+        return parametersList.size() > MAX_LOGGED_BATCH_ENTRIES
+            ? formatted + " ... (" + parametersList.size() + " batch entries)"
+            : formatted;
+    }
+    
+    static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return "background task (" + Thread.currentThread().getName() + ")";
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,27 @@
+package com.bookapp.util;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Case- and spacing-insensitive key for titles and names. Kept in step with the
+ * {@code title_key} and {@code name_key} columns the migrations generate: runs of ASCII
+ * whitespace become one space, a leading or trailing space is dropped and the rest is
+ * lower-cased.
+ */
+public final class TextNormalizer {
+    
+    private static final Pattern WHITESPACE = Pattern.compile("[ \\t\\n\\x0B\\f\\r]+");
+    private static final Pattern EDGE_SPACE = Pattern.compile("^ | $");
+    
+    private TextNormalizer() {
+    }
+    
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String collapsed = WHITESPACE.matcher(text).replaceAll(" ");
+        return EDGE_SPACE.matcher(collapsed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
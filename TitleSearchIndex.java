@@ -0,0 +1,302 @@
+package com.bookapp.index;
+
+import com.bookapp.dto.AuthorResponseDto;
+import com.bookapp.dto.BookResponseDto;
+import com.bookapp.event.BookDeletedEvent;
+import com.bookapp.event.BooksCreatedEvent;
+import com.bookapp.util.TextNormalizer;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram inverted index over stored book titles and author names. A book matches when enough of
+ * the query's trigrams occur in its title or in one of its authors' names, which covers partial
+ * words and small typos. Results are ranked by match quality, then by download count.
+ *
+ * <p>Candidates come from a bitmap union of the query's selective posting lists and are scored
+ * with bitmap membership tests, so common trigrams such as " th" are never walked id by id.
+ */
+@Component
+public class TitleSearchIndex {
+    
+    private static final double MIN_SCORE = 0.5;
+    private static final double LOCAL_MATCH_SCORE = 0.9;
+    private static final double LOCAL_MATCH_LENGTH_RATIO = 0.9;
+    private static final double STOP_TRIGRAM_FREQUENCY = 0.05;
+    private static final Comparator<Match> RANKING = Comparator
+        .comparingInt((Match match) -> (int) Math.round(match.score() * 10)).reversed()
+        .thenComparing(match -> downloads(match.book()), Comparator.reverseOrder())
+        .thenComparing(match -> match.book().getId());
+    
+    public record Match(BookResponseDto book, double score, double titleScore) {
+    }
+    
+    private final Map<Integer, BookResponseDto> books = new HashMap<>();
+    private final Map<String, RoaringBitmap> titlePostings = new HashMap<>();
+    private final Map<String, RoaringBitmap> authorPostings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public void markReady() {
+        ready = true;
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return books.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public void add(BookResponseDto book) {
+        if (book.getId() == null || book.getId() > Integer.MAX_VALUE) {
+            return;
+        }
+        int id = book.getId().intValue();
+        lock.writeLock().lock();
+        try {
+            BookResponseDto previous = books.put(id, book);
+            if (previous != null) {
+                unindex(id, previous);
+            }
+            for (String trigram : trigrams(book.getTitle())) {
+                titlePostings.computeIfAbsent(trigram, key -> new RoaringBitmap()).add(id);
+            }
+            for (String trigram : authorTrigrams(book)) {
+                authorPostings.computeIfAbsent(trigram, key -> new RoaringBitmap()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(Long bookId) {
+        if (bookId == null || bookId > Integer.MAX_VALUE) {
+            return;
+        }
+        int id = bookId.intValue();
+        lock.writeLock().lock();
+        try {
+            BookResponseDto previous = books.remove(id);
+            if (previous != null) {
+                unindex(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Drops every indexed book with an id of at most {@code upToId} that is not in
+     * {@code loadedIds}, i.e. books a full reload no longer found because they were deleted.
+     */
+    public void removeMissing(RoaringBitmap loadedIds, long upToId) {
+        lock.writeLock().lock();
+        try {
+            books.entrySet().removeIf(entry -> {
+                int id = entry.getKey();
+                if (id > upToId || loadedIds.contains(id)) {
+                    return false;
+                }
+                unindex(id, entry.getValue());
+                return true;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public List<Match> search(String query, int limit) {
+        List<String> queryTrigrams = List.copyOf(trigrams(query));
+        if (queryTrigrams.isEmpty()) {
+            return List.of();
+        }
+        
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            RoaringBitmap[] titleLists = postingLists(titlePostings, queryTrigrams);
+            RoaringBitmap[] authorLists = postingLists(authorPostings, queryTrigrams);
+            RoaringBitmap candidates = RoaringBitmap.or(candidates(titleLists), candidates(authorLists));
+            
+            IntIterator ids = candidates.getIntIterator();
+            while (ids.hasNext()) {
+                int id = ids.next();
+                double titleScore = countContaining(titleLists, id) / (double) queryTrigrams.size();
+                double authorScore = countContaining(authorLists, id) / (double) queryTrigrams.size();
+                double score = Math.max(titleScore, authorScore);
+                if (score >= MIN_SCORE) {
+                    matches.add(new Match(books.get(id), score, titleScore));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        matches.sort(RANKING);
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+    
+    /**
+     * Best stored book whose title is the given title up to case, spacing or a small typo: equal
+     * once normalized, or of similar length with a Dice trigram similarity of at least
+     * {@value #LOCAL_MATCH_SCORE}. Containment alone is not enough, so "Dracula" does not match
+     * "Dracula's Guest".
+     */
+    public Optional<BookResponseDto> findLocalMatch(String title) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        String key = TextNormalizer.normalize(title);
+        Set<String> queryTrigrams = trigrams(title);
+        return search(title, Integer.MAX_VALUE).stream()
+            .filter(match -> match.titleScore() >= LOCAL_MATCH_SCORE)
+            .map(match -> new Match(match.book(), titleSimilarity(key, queryTrigrams, match.book().getTitle()), match.titleScore()))
+            .filter(match -> match.score() >= LOCAL_MATCH_SCORE)
+            .sorted(Comparator.comparingDouble(Match::score).reversed())
+            .map(Match::book)
+            .findFirst();
+    }
+    
+    /**
+     * Symmetric similarity of two titles: 1 when equal once normalized, 0 when their lengths
+     * differ by more than {@value #LOCAL_MATCH_LENGTH_RATIO}, otherwise the Dice coefficient of
+     * their trigram sets.
+     */
+    static double titleSimilarity(String key, Set<String> keyTrigrams, String title) {
+        String otherKey = TextNormalizer.normalize(title);
+        if (key.equals(otherKey)) {
+            return 1.0;
+        }
+        int shorter = Math.min(key.length(), otherKey.length());
+        int longer = Math.max(key.length(), otherKey.length());
+        if (longer == 0 || shorter < longer * LOCAL_MATCH_LENGTH_RATIO) {
+            return 0.0;
+        }
+        Set<String> otherTrigrams = trigrams(title);
+        int common = 0;
+        for (String trigram : keyTrigrams) {
+            if (otherTrigrams.contains(trigram)) {
+                common++;
+            }
+        }
+        return 2.0 * common / (keyTrigrams.size() + otherTrigrams.size());
+    }
+    
+    @TransactionalEventListener
+    public void onBooksCreated(BooksCreatedEvent event) {
+        for (BookResponseDto book : event.books()) {
+            add(book);
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onBookDeleted(BookDeletedEvent event) {
+        remove(event.id());
+    }
+    
+    private void unindex(int id, BookResponseDto book) {
+        removeFrom(titlePostings, trigrams(book.getTitle()), id);
+        removeFrom(authorPostings, authorTrigrams(book), id);
+    }
+    
+    private static void removeFrom(Map<String, RoaringBitmap> postings, Set<String> trigrams, int id) {
+        for (String trigram : trigrams) {
+            RoaringBitmap bitmap = postings.get(trigram);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+    
+    private static RoaringBitmap[] postingLists(Map<String, RoaringBitmap> postings, List<String> queryTrigrams) {
+        RoaringBitmap[] lists = new RoaringBitmap[queryTrigrams.size()];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(queryTrigrams.get(i));
+        }
+        return lists;
+    }
+    
+    /**
+     * Union of the query's posting lists, minus stop trigrams: the most common ones, held by
+     * more than {@value #STOP_TRIGRAM_FREQUENCY} of the indexed books. Only as many are dropped
+     * as keep their share of the query below {@link #MIN_SCORE}, so a book holding nothing but
+     * stop trigrams could not have matched anyway and the candidates stay exact.
+     */
+    private RoaringBitmap candidates(RoaringBitmap[] lists) {
+        List<RoaringBitmap> present = new ArrayList<>(lists.length);
+        for (RoaringBitmap list : lists) {
+            if (list != null) {
+                present.add(list);
+            }
+        }
+        present.sort(Comparator.comparingInt(RoaringBitmap::getCardinality).reversed());
+        int maxStopTrigrams = (int) Math.ceil(lists.length * MIN_SCORE) - 1;
+        int stopTrigramCutoff = (int) (books.size() * STOP_TRIGRAM_FREQUENCY);
+        int skipped = 0;
+        while (skipped < present.size() && skipped < maxStopTrigrams
+                && present.get(skipped).getCardinality() > stopTrigramCutoff) {
+            skipped++;
+        }
+        return FastAggregation.or(present.subList(skipped, present.size()).iterator());
+    }
+    
+    private static int countContaining(RoaringBitmap[] lists, int id) {
+        int hits = 0;
+        for (RoaringBitmap list : lists) {
+            if (list != null && list.contains(id)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+    
+    private static Set<String> authorTrigrams(BookResponseDto book) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        if (book.getAuthors() != null) {
+            for (AuthorResponseDto author : book.getAuthors()) {
+                trigrams.addAll(trigrams(author.getName()));
+            }
+        }
+        return trigrams;
+    }
+    
+    static Set<String> trigrams(String text) {
+        String normalized = TextNormalizer.normalize(text == null ? null : text.replaceAll("[^\\p{L}\\p{N}\\s]", " "));
+        Set<String> trigrams = new LinkedHashSet<>();
+        if (normalized.isBlank()) {
+            return trigrams;
+        }
+        String padded = " " + normalized + " ";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+    
+    private static int downloads(BookResponseDto book) {
+        return book.getDownloadCount() != null ? book.getDownloadCount() : 0;
+    }
+}
@@ -0,0 +1,11 @@
+package com.bookapp.benchmark;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+@SpringBootApplication(scanBasePackages = "com.bookapp")
+@EntityScan("com.bookapp.model")
+@EnableJpaRepositories("com.bookapp.repository")
+public class BenchmarkApplication {
+}
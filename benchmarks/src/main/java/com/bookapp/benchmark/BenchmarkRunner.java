@@ -0,0 +1,30 @@
+package com.bookapp.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler (for gc.alloc.rate.norm) and writes JSON results to
+ * {@code target/jmh-result.json}, or the file given with {@code -rff}. Any standard JMH command
+ * line option can be passed, e.g. {@code -p catalogSize=1000 DtoMapping}.
+ */
+public class BenchmarkRunner {
+    
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        options.addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(commandLine.getResult().orElse("target/jmh-result.json"));
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include("com\\.bookapp\\.benchmark\\..*");
+        }
+        new Runner(options.build()).run();
+    }
+}
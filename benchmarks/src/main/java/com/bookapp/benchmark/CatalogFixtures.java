@@ -0,0 +1,52 @@
+package com.bookapp.benchmark;
+
+import com.bookapp.model.Author;
+import com.bookapp.model.Book;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+final class CatalogFixtures {
+    
+    static final String[] LANGUAGES = {"en", "pt", "fr", "es", "de", "it", "fi", "nl"};
+    
+    private CatalogFixtures() {
+    }
+    
+    static String title(int index) {
+        return "Benchmark Book " + index;
+    }
+    
+    static List<Author> authors(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Author> authors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int birthYear = 1500 + random.nextInt(480);
+            Integer deathYear = random.nextInt(10) == 0 ? null : birthYear + 20 + random.nextInt(70);
+            authors.add(new Author("Author " + i, birthYear, deathYear));
+        }
+        return authors;
+    }
+    
+    /**
+     * Books with one to three authors drawn from a pool a tenth the size of the catalog, so that
+     * repeat authors are as common as they are in the real Gutendex data.
+     */
+    static List<Book> books(int count) {
+        SplittableRandom random = new SplittableRandom(7);
+        List<Author> authorPool = authors(Math.max(count / 10, 1));
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Book book = new Book(title(i), LANGUAGES[random.nextInt(LANGUAGES.length)], random.nextInt(100_000));
+            int authorCount = Math.min(1 + random.nextInt(3), authorPool.size());
+            int first = random.nextInt(authorPool.size());
+            for (int a = 0; a < authorCount; a++) {
+                Author author = authorPool.get((first + a) % authorPool.size());
+                book.addAuthor(new Author(author.getName(), author.getBirthYear(), author.getDeathYear()));
+            }
+            books.add(book);
+        }
+        return books;
+    }
+}
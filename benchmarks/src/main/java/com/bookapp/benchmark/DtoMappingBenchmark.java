@@ -0,0 +1,57 @@
+package com.bookapp.benchmark;
+
+import com.bookapp.dto.AuthorResponseDto;
+import com.bookapp.dto.BookResponseDto;
+import com.bookapp.model.Author;
+import com.bookapp.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DtoMappingBenchmark {
+    
+    @Param({"1000", "100000", "1000000"})
+    public int catalogSize;
+    
+    private List<Book> books;
+    private List<Author> authors;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        books = CatalogFixtures.books(catalogSize);
+        authors = CatalogFixtures.authors(catalogSize);
+    }
+    
+    @Benchmark
+    public void bookFromEntity(Blackhole blackhole) {
+        for (Book book : books) {
+            blackhole.consume(BookResponseDto.fromEntity(book));
+        }
+    }
+    
+    @Benchmark
+    public void authorFromEntity(Blackhole blackhole) {
+        for (Author author : authors) {
+            blackhole.consume(AuthorResponseDto.fromEntity(author));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.bookapp.benchmark;
+
+import com.bookapp.dto.AuthorResponseDto;
+import com.bookapp.model.Book;
+import com.bookapp.repository.AuthorQueryRepository;
+import com.bookapp.repository.BookAuthorRow;
+import com.bookapp.repository.BookQueryRepository;
+import com.bookapp.service.BookServiceEnhanced;
+import com.bookapp.util.TextNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The repository queries behind the shipped read and save paths, against an in-memory H2 catalog
+ * seeded through the regular persist path. Hibernate's second-level and query caches are off in
+ * the benchmark profile, so every call reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RepositoryQueryBenchmark {
+    
+    private static final int SEED_CHUNK_SIZE = 10_000;
+    private static final int PAGE_SIZE = 50;
+    
+    @Param({"1000", "100000", "1000000"})
+    public int catalogSize;
+    
+    private ConfigurableApplicationContext context;
+    private BookQueryRepository bookQueryRepository;
+    private AuthorQueryRepository authorQueryRepository;
+    private SplittableRandom random;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BenchmarkApplication.class)
+            .profiles("benchmark")
+            .run();
+        bookQueryRepository = context.getBean(BookQueryRepository.class);
+        authorQueryRepository = context.getBean(AuthorQueryRepository.class);
+        
+        BookServiceEnhanced bookService = context.getBean(BookServiceEnhanced.class);
+        List<Book> books = CatalogFixtures.books(catalogSize);
+        for (int from = 0; from < books.size(); from += SEED_CHUNK_SIZE) {
+            bookService.saveBooks(books.subList(from, Math.min(from + SEED_CHUNK_SIZE, books.size())));
+        }
+        random = new SplittableRandom(11);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    /**
+     * GET /api/books: one keyset page of ids, then the book and author rows for that page.
+     */
+    @Benchmark
+    public List<BookAuthorRow> booksPage() {
+        List<Long> ids = bookQueryRepository.findIdsAfter(random.nextInt(catalogSize), PageRequest.of(0, PAGE_SIZE));
+        return ids.isEmpty() ? List.of() : bookQueryRepository.findRowsByIdIn(ids);
+    }
+    
+    /**
+     * GET /api/books/language/{language} before the language index is ready.
+     */
+    @Benchmark
+    public List<Long> bookIdsByLanguagePage() {
+        String language = CatalogFixtures.LANGUAGES[random.nextInt(CatalogFixtures.LANGUAGES.length)];
+        return bookQueryRepository.findIdsByLanguageAfter(language, random.nextInt(catalogSize), PageRequest.of(0, PAGE_SIZE));
+    }
+    
+    /**
+     * The existing-title lookup of each saveBooks chunk, for a page-sized batch of titles.
+     */
+    @Benchmark
+    public List<Book> existingBooksByTitle() {
+        Set<String> titles = new HashSet<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            titles.add(TextNormalizer.normalize(CatalogFixtures.title(random.nextInt(catalogSize))));
+        }
+        return bookQueryRepository.findAllWithAuthorsByNormalizedTitleIn(titles);
+    }
+    
+    /**
+     * GET /api/authors: one keyset page of author DTOs.
+     */
+    @Benchmark
+    public List<AuthorResponseDto> authorsPage() {
+        return authorQueryRepository.findPageAfter(random.nextInt(Math.max(catalogSize / 10, 1)), PageRequest.of(0, PAGE_SIZE));
+    }
+    
+    /**
+     * GET /api/authors/year/{year} before the author year index is ready.
+     */
+    @Benchmark
+    public List<AuthorResponseDto> authorsAliveInYear() {
+        int year = 1500 + random.nextInt(500);
+        return authorQueryRepository.findAuthorsAliveBetween(year, year);
+    }
+}
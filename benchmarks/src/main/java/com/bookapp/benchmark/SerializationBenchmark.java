@@ -0,0 +1,110 @@
+package com.bookapp.benchmark;
+
+import com.bookapp.config.ProtobufApiResponseHttpMessageConverter;
+import com.bookapp.dto.ApiResponse;
+import com.bookapp.dto.BookResponseDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SerializationBenchmark {
+    
+    @Param({"1000", "100000", "1000000"})
+    public int catalogSize;
+    
+    private static final Type RESPONSE_TYPE = ResolvableType.forClassWithGenerics(ApiResponse.class,
+        ResolvableType.forClassWithGenerics(List.class, BookResponseDto.class)).getType();
+    
+    private ApiResponse<List<BookResponseDto>> response;
+    private ObjectWriter writer;
+    private ObjectWriter cborWriter;
+    private ObjectWriter smileWriter;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<BookResponseDto> books = CatalogFixtures.books(catalogSize).stream()
+            .map(BookResponseDto::fromEntity)
+            .toList();
+        response = ApiResponse.success("Books retrieved successfully", books);
+        writer = writerFor(new JsonFactory());
+        cborWriter = writerFor(new CBORFactory());
+        smileWriter = writerFor(new SmileFactory());
+        
+        System.out.printf("%nPayload size for %d books: json=%d cbor=%d smile=%d protobuf=%d bytes%n",
+            catalogSize, serializeJson(), serializeCbor(), serializeSmile(), serializeProtobuf());
+    }
+    
+    private static ObjectWriter writerFor(JsonFactory factory) {
+        return new ObjectMapper(factory).findAndRegisterModules().writerFor(ApiResponse.class);
+    }
+    
+    @Benchmark
+    public long serializeJson() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        writer.writeValue(out, response);
+        return out.count;
+    }
+    
+    @Benchmark
+    public long serializeCbor() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        cborWriter.writeValue(out, response);
+        return out.count;
+    }
+    
+    @Benchmark
+    public long serializeSmile() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        smileWriter.writeValue(out, response);
+        return out.count;
+    }
+    
+    @Benchmark
+    public long serializeProtobuf() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        ProtobufApiResponseHttpMessageConverter.toMessage(response, RESPONSE_TYPE).writeTo(out);
+        return out.count;
+    }
+    
+    static final class CountingOutputStream extends OutputStream {
+        
+        long count;
+        
+        @Override
+        public void write(int b) {
+            count++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.bookapp.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+final class EndpointStats {
+    
+    private final String name;
+    private final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(5), 3);
+    private final LongAdder errors = new LongAdder();
+    
+    EndpointStats(String name) {
+        this.name = name;
+    }
+    
+    String getName() {
+        return name;
+    }
+    
+    void record(long elapsedNanos, boolean error) {
+        latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), latencyMicros.getHighestTrackableValue()));
+        if (error) {
+            errors.increment();
+        }
+    }
+    
+    void reset() {
+        latencyMicros.reset();
+        errors.reset();
+    }
+    
+    Map<String, Object> summary(double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long requests = latencyMicros.getTotalCount();
+        summary.put("requests", requests);
+        summary.put("errors", errors.sum());
+        summary.put("throughput", requests / seconds);
+        summary.put("meanMs", latencyMicros.getMean() / 1000.0);
+        summary.put("p50Ms", millis(latencyMicros.getValueAtPercentile(50)));
+        summary.put("p99Ms", millis(latencyMicros.getValueAtPercentile(99)));
+        summary.put("p999Ms", millis(latencyMicros.getValueAtPercentile(99.9)));
+        summary.put("maxMs", millis(latencyMicros.getMaxValue()));
+        return summary;
+    }
+    
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
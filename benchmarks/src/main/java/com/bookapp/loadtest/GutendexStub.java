@@ -0,0 +1,189 @@
+package com.bookapp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Gutendex API with configurable latency and error injection.
+ *
+ * <ul>
+ *   <li>{@code ?search=<text>} returns one deterministic book for the text, or no results when the
+ *       text starts with "missing".</li>
+ *   <li>Without {@code search}, serves a paginated catalog of {@code catalogPages} pages of 32
+ *       books each, linked through {@code next}, for the catalog ingestion.</li>
+ * </ul>
+ */
+public class GutendexStub implements AutoCloseable {
+    
+    private static final int PAGE_SIZE = 32;
+    private static final String[] LANGUAGES = {"en", "pt", "fr", "es", "de"};
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private volatile long latencyMs;
+    private volatile long jitterMs;
+    private volatile double errorRate;
+    private volatile int catalogPages;
+    
+    public GutendexStub(int port, long latencyMs, long jitterMs, double errorRate, int catalogPages) throws IOException {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.errorRate = errorRate;
+        this.catalogPages = catalogPages;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.executor = Executors.newCachedThreadPool();
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+    
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/books";
+    }
+    
+    public long getRequests() {
+        return requests.get();
+    }
+    
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+    
+    public void setLatency(long latencyMs, long jitterMs) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+    }
+    
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+    
+    public void setCatalogPages(int catalogPages) {
+        this.catalogPages = catalogPages;
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            sleep();
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            Map<String, Object> page = query.containsKey("search")
+                ? searchPage(query.get("search"))
+                : catalogPage(Integer.parseInt(query.getOrDefault("page", "1")));
+            
+            byte[] body = objectMapper.writeValueAsBytes(page);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+    
+    private Map<String, Object> searchPage(String search) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        if (!search.toLowerCase().startsWith("missing")) {
+            results.add(book(Math.abs(search.toLowerCase().hashCode()), search));
+        }
+        return page(results.size(), null, results);
+    }
+    
+    private Map<String, Object> catalogPage(int pageNumber) {
+        List<Map<String, Object>> results = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            int id = (pageNumber - 1) * PAGE_SIZE + i + 1;
+            results.add(book(id, "Catalog Book " + id));
+        }
+        String next = pageNumber < catalogPages ? getBaseUrl() + "?page=" + (pageNumber + 1) : null;
+        return page(catalogPages * PAGE_SIZE, next, results);
+    }
+    
+    private static Map<String, Object> page(int count, String next, List<Map<String, Object>> results) {
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("count", count);
+        page.put("next", next);
+        page.put("previous", null);
+        page.put("results", results);
+        return page;
+    }
+    
+    private static Map<String, Object> book(int id, String title) {
+        int authorId = id % 997;
+        int birthYear = 1500 + authorId % 450;
+        Map<String, Object> author = new LinkedHashMap<>();
+        author.put("name", "Stub Author " + authorId);
+        author.put("birth_year", birthYear);
+        author.put("death_year", birthYear + 40 + authorId % 40);
+        
+        Map<String, Object> book = new LinkedHashMap<>();
+        book.put("id", id);
+        book.put("title", title);
+        book.put("authors", List.of(author));
+        book.put("translators", List.of());
+        book.put("subjects", List.of("Fiction"));
+        book.put("bookshelves", List.of());
+        book.put("languages", List.of(LANGUAGES[id % LANGUAGES.length]));
+        book.put("copyright", false);
+        book.put("media_type", "Text");
+        book.put("formats", Map.of("text/plain", "http://127.0.0.1/" + id + ".txt"));
+        book.put("download_count", id % 50_000);
+        return book;
+    }
+    
+    private void sleep() {
+        long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,242 @@
+package com.bookapp.loadtest;
+
+import com.bookapp.benchmark.BenchmarkApplication;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the application on H2 against a local {@link GutendexStub}, drives a mixed workload over
+ * the main endpoints and reports throughput and tail latency per endpoint. When a baseline report
+ * exists, the run fails (exit code 1) if any endpoint's p99 grew or its throughput dropped by more
+ * than the configured tolerance.
+ *
+ * <p>Configured through system properties, see {@link Settings}.
+ */
+public class LoadHarness {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String[] LANGUAGES = {"en", "pt", "fr", "es", "de"};
+    
+    record Settings(int users, Duration warmup, Duration duration, int seedBooks, long stubLatencyMs,
+                    long stubJitterMs, double stubErrorRate, Path baseline, Path report, double tolerance,
+                    boolean updateBaseline, boolean virtualThreads) {
+        
+        static Settings fromSystemProperties() {
+            boolean virtualThreads = Boolean.getBoolean("loadtest.virtual-threads");
+            String mode = virtualThreads ? "virtual" : "platform";
+            return new Settings(
+                Integer.getInteger("loadtest.users", 32),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Integer.getInteger("loadtest.seed-books", 500),
+                Long.getLong("loadtest.stub.latency-ms", 50),
+                Long.getLong("loadtest.stub.jitter-ms", 50),
+                Double.parseDouble(System.getProperty("loadtest.stub.error-rate", "0.01")),
+                Path.of(System.getProperty("loadtest.baseline", "loadtest-baseline-" + mode + ".json")),
+                Path.of(System.getProperty("loadtest.report", "target/loadtest-report-" + mode + ".json")),
+                Double.parseDouble(System.getProperty("loadtest.tolerance", "0.20")),
+                Boolean.getBoolean("loadtest.update-baseline"),
+                virtualThreads);
+        }
+        
+        String[] profiles() {
+            return virtualThreads ? new String[] {"loadtest", "virtual-threads"} : new String[] {"loadtest"};
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        int exitCode;
+        try (GutendexStub stub = new GutendexStub(0, settings.stubLatencyMs(), settings.stubJitterMs(),
+                settings.stubErrorRate(), 10)) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(BenchmarkApplication.class)
+                .profiles(settings.profiles())
+                .properties("gutendex.api.url=" + stub.getBaseUrl())
+                .run(args);
+            try {
+                String baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+                exitCode = new LoadHarness(baseUrl, settings).run(stub);
+            } finally {
+                context.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+    
+    private final String baseUrl;
+    private final Settings settings;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    
+    LoadHarness(String baseUrl, Settings settings) {
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+        for (String endpoint : List.of("POST /api/books/search", "GET /api/books", "GET /api/books/language/{code}",
+                "GET /api/authors/year/{year}", "GET /api/health")) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+    
+    int run(GutendexStub stub) throws Exception {
+        seed();
+        drive(settings.warmup());
+        stats.values().forEach(EndpointStats::reset);
+        long stubRequestsBefore = stub.getRequests();
+        
+        long startedAt = System.nanoTime();
+        drive(settings.duration());
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        
+        Map<String, Map<String, Object>> report = new LinkedHashMap<>();
+        stats.forEach((endpoint, endpointStats) -> report.put(endpoint, endpointStats.summary(seconds)));
+        print(report, stub.getRequests() - stubRequestsBefore, seconds);
+        
+        Files.createDirectories(settings.report().toAbsolutePath().getParent());
+        MAPPER.writeValue(settings.report().toFile(), report);
+        if (settings.updateBaseline()) {
+            MAPPER.writeValue(settings.baseline().toFile(), report);
+            System.out.println("Baseline updated: " + settings.baseline());
+            return 0;
+        }
+        return compareWithBaseline(report);
+    }
+    
+    private void seed() throws IOException, InterruptedException {
+        List<String> titles = new ArrayList<>(settings.seedBooks());
+        for (int i = 0; i < settings.seedBooks(); i++) {
+            titles.add("Load Test Book " + i);
+        }
+        String body = MAPPER.writeValueAsString(Map.of("titles", titles));
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/books/search/batch"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode());
+        }
+    }
+    
+    private void drive(Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Thread> users = new ArrayList<>(settings.users());
+        for (int i = 0; i < settings.users(); i++) {
+            users.add(Thread.ofVirtual().name("loadtest-user-" + i).start(() -> {
+                while (System.nanoTime() < deadline) {
+                    issueRequest();
+                }
+            }));
+        }
+        for (Thread user : users) {
+            user.join();
+        }
+    }
+    
+    private void issueRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pick = random.nextInt(100);
+        String endpoint;
+        HttpRequest.Builder request;
+        if (pick < 20) {
+            endpoint = "POST /api/books/search";
+            int bookNumber = random.nextInt(100) < 80 ? random.nextInt(settings.seedBooks()) : settings.seedBooks() + random.nextInt(1_000_000);
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/books/search"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Load Test Book " + bookNumber + "\"}"));
+        } else if (pick < 45) {
+            endpoint = "GET /api/books";
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/books?limit=50&after=" + random.nextInt(settings.seedBooks())));
+        } else if (pick < 65) {
+            endpoint = "GET /api/books/language/{code}";
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/books/language/" + LANGUAGES[random.nextInt(LANGUAGES.length)]));
+        } else if (pick < 85) {
+            endpoint = "GET /api/authors/year/{year}";
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/authors/year/" + (1500 + random.nextInt(500))));
+        } else {
+            endpoint = "GET /api/health";
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/health"));
+        }
+        
+        long startedAt = System.nanoTime();
+        boolean error;
+        try {
+            HttpResponse<Void> response = client.send(request.timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.discarding());
+            error = response.statusCode() >= 500;
+        } catch (IOException e) {
+            error = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        stats.get(endpoint).record(System.nanoTime() - startedAt, error);
+    }
+    
+    private void print(Map<String, Map<String, Object>> report, long upstreamRequests, double seconds) {
+        System.out.printf("%n%s threads, %d users%n", settings.virtualThreads() ? "Virtual" : "Platform", settings.users());
+        System.out.printf("%-34s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "errors", "req/s", "mean ms", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        double inFlight = 0;
+        for (Map.Entry<String, Map<String, Object>> entry : report.entrySet()) {
+            Map<String, Object> summary = entry.getValue();
+            System.out.printf("%-34s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                entry.getKey(), summary.get("requests"), summary.get("errors"), summary.get("throughput"),
+                summary.get("meanMs"), summary.get("p50Ms"), summary.get("p99Ms"), summary.get("p999Ms"), summary.get("maxMs"));
+            inFlight += (Double) summary.get("throughput") * (Double) summary.get("meanMs") / 1000.0;
+        }
+        System.out.printf("Average requests in flight: %.1f%n", inFlight);
+        System.out.printf("Gutendex stub requests: %d (%.1f/s)%n%n", upstreamRequests, upstreamRequests / seconds);
+    }
+    
+    private int compareWithBaseline(Map<String, Map<String, Object>> report) throws IOException {
+        if (!Files.exists(settings.baseline())) {
+            System.out.println("No baseline at " + settings.baseline() + "; run with -Dloadtest.update-baseline=true to store one");
+            return 0;
+        }
+        Map<String, Map<String, Object>> baseline = MAPPER.readValue(settings.baseline().toFile(),
+            new TypeReference<Map<String, Map<String, Object>>>() { });
+        
+        List<String> regressions = new ArrayList<>();
+        baseline.forEach((endpoint, expected) -> {
+            Map<String, Object> actual = report.get(endpoint);
+            if (actual == null) {
+                return;
+            }
+            double expectedP99 = ((Number) expected.get("p99Ms")).doubleValue();
+            double actualP99 = ((Number) actual.get("p99Ms")).doubleValue();
+            if (actualP99 > expectedP99 * (1 + settings.tolerance())) {
+                regressions.add(String.format("%s p99 %.2f ms > baseline %.2f ms", endpoint, actualP99, expectedP99));
+            }
+            double expectedThroughput = ((Number) expected.get("throughput")).doubleValue();
+            double actualThroughput = ((Number) actual.get("throughput")).doubleValue();
+            if (actualThroughput < expectedThroughput * (1 - settings.tolerance())) {
+                regressions.add(String.format("%s throughput %.1f req/s < baseline %.1f req/s",
+                    endpoint, actualThroughput, expectedThroughput));
+            }
+        });
+        
+        if (regressions.isEmpty()) {
+            System.out.println("No regressions against " + settings.baseline());
+            return 0;
+        }
+        System.out.println("Regressions against " + settings.baseline() + ":");
+        regressions.forEach(regression -> System.out.println("  " + regression));
+        return 1;
+    }
+}
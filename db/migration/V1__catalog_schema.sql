@@ -0,0 +1,25 @@
+-- Catalog schema as mapped by the Book and Author entities (table names pinned in orm.xml).
+-- IF NOT EXISTS lets databases previously created by ddl-auto be baselined onto this history.
+
+CREATE SEQUENCE IF NOT EXISTS book_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS author_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS books (
+    id             BIGINT       NOT NULL PRIMARY KEY,
+    title          VARCHAR(255) NOT NULL,
+    language       VARCHAR(255),
+    download_count INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS authors (
+    id         BIGINT       NOT NULL PRIMARY KEY,
+    name       VARCHAR(255) NOT NULL,
+    birth_year INTEGER,
+    death_year INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS book_authors (
+    book_id   BIGINT NOT NULL REFERENCES books (id) ON DELETE CASCADE,
+    author_id BIGINT NOT NULL REFERENCES authors (id),
+    PRIMARY KEY (book_id, author_id)
+);
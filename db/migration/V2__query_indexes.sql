@@ -0,0 +1,14 @@
+-- One index per query path the API uses. Primary keys already cover id lookups, keyset paging
+-- and the book -> authors side of book_authors.
+
+-- Title and author lookups use the normalized key columns and unique indexes added per database
+-- in db/vendor/<database>/V2_1, since generated-column syntax differs.
+
+-- Language listings page by id within a language; also serves the per-language counts.
+CREATE INDEX IF NOT EXISTS ix_books_language_id ON books (language, id);
+
+-- Authors alive in a year or range: birth_year <= :to AND (death_year IS NULL OR death_year >= :from).
+CREATE INDEX IF NOT EXISTS ix_authors_birth_death_year ON authors (birth_year, death_year);
+
+-- author -> books side of the join table, used when deleting books and loading an author's books.
+CREATE INDEX IF NOT EXISTS ix_book_authors_author_id ON book_authors (author_id);
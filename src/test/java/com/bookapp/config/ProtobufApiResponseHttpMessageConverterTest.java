@@ -0,0 +1,58 @@
+package com.bookapp.config;
+
+import com.bookapp.dto.ApiResponse;
+import com.bookapp.dto.BookResponseDto;
+import com.bookapp.dto.PageResponseDto;
+import com.bookapp.dto.SearchJobDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProtobufApiResponseHttpMessageConverterTest {
+    
+    private final ProtobufApiResponseHttpMessageConverter converter = new ProtobufApiResponseHttpMessageConverter();
+    
+    @Test
+    void offersProtobufForMappedPayloads() {
+        assertThat(canWrite(ResolvableType.forClass(BookResponseDto.class))).isTrue();
+        assertThat(canWrite(ResolvableType.forClass(SearchJobDto.class))).isTrue();
+        assertThat(canWrite(ResolvableType.forClassWithGenerics(PageResponseDto.class, BookResponseDto.class))).isTrue();
+        assertThat(canWrite(ResolvableType.forClassWithGenerics(List.class, BookResponseDto.class))).isTrue();
+        assertThat(canWrite(ResolvableType.forClassWithGenerics(Map.class, String.class, Long.class))).isTrue();
+        assertThat(canWrite(ResolvableType.forClass(Object.class))).isTrue();
+    }
+    
+    @Test
+    void refusesPayloadsWithoutAMessage() {
+        assertThat(canWrite(ResolvableType.forClassWithGenerics(Map.class, String.class, Object.class))).isFalse();
+        assertThat(canWrite(ResolvableType.forClassWithGenerics(Map.class, String.class, String.class))).isFalse();
+        assertThat(canWrite(ResolvableType.forClassWithGenerics(List.class, String.class))).isFalse();
+        assertThat(canWrite(ResolvableType.forClass(String.class))).isFalse();
+    }
+    
+    @Test
+    void writesSearchJobs() {
+        SearchJobDto job = new SearchJobDto("job-1", "Dom Casmurro", SearchJobDto.QUEUED, null, null, null, null);
+        Type type = apiResponseOf(ResolvableType.forClass(SearchJobDto.class));
+        
+        var message = ProtobufApiResponseHttpMessageConverter.toMessage(ApiResponse.success("Search queued", job), type);
+        
+        assertThat(message.getSearchJob().getId()).isEqualTo("job-1");
+        assertThat(message.getSearchJob().getStatus()).isEqualTo(SearchJobDto.QUEUED);
+        assertThat(message.getSearchJob().hasCompletedAt()).isFalse();
+    }
+    
+    private boolean canWrite(ResolvableType dataType) {
+        return converter.canWrite(apiResponseOf(dataType), ApiResponse.class, ProtobufHttpMessageConverter.PROTOBUF);
+    }
+    
+    private static Type apiResponseOf(ResolvableType dataType) {
+        return ResolvableType.forClassWithGenerics(ApiResponse.class, dataType).getType();
+    }
+}
@@ -0,0 +1,159 @@
+package com.bookapp.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Routes between two in-memory H2 databases, each holding a marker row naming itself, through the
+ * data source {@link DataSourceConfig} builds.
+ */
+class ReadWriteRoutingDataSourceTest {
+    
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+    private static final String UNREACHABLE_URL = "jdbc:h2:tcp://127.0.0.1:1/unreachable";
+    
+    private DataSource dataSource;
+    
+    @BeforeAll
+    static void createMarkers() throws SQLException {
+        createMarker(PRIMARY_URL, "primary");
+        createMarker(REPLICA_URL, "replica");
+    }
+    
+    private static void createMarker(String url, String name) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+            statement.execute("DELETE FROM node");
+            statement.execute("INSERT INTO node VALUES ('" + name + "')");
+        }
+    }
+    
+    @AfterEach
+    void closePools() throws IOException {
+        if (dataSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+    
+    @Test
+    void readOnlyTransactionsReadFromTheReplicaAndWritesGoToThePrimary() {
+        dataSource = routing(REPLICA_URL, Duration.ofSeconds(5), Duration.ofSeconds(5), "");
+        
+        assertThat(readOnlyRead()).isEqualTo("replica");
+        assertThat(write()).isEqualTo("primary");
+    }
+    
+    @Test
+    void readsStayOnThePrimaryForTheWindowAfterAWrite() throws InterruptedException {
+        dataSource = routing(REPLICA_URL, Duration.ofMillis(300), Duration.ofMillis(300), "");
+        
+        write();
+        assertThat(readOnlyRead()).isEqualTo("primary");
+        Thread.sleep(400);
+        assertThat(readOnlyRead()).isEqualTo("replica");
+    }
+    
+    @Test
+    void readWriteTransactionsThatOnlyReadLeaveTheWindowClosed() {
+        dataSource = routing(REPLICA_URL, Duration.ofSeconds(5), Duration.ofSeconds(5), "");
+        
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        assertThat(transactionTemplate.execute(status -> currentNode())).isEqualTo("primary");
+        assertThat(readOnlyRead()).isEqualTo("replica");
+    }
+    
+    @Test
+    void pinnedRouteHoldsForTheWholeTransaction() throws SQLException {
+        dataSource = routing(REPLICA_URL, Duration.ofSeconds(5), Duration.ofSeconds(5), "");
+        ReadWriteRoutingDataSource routingDataSource = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+        
+        assertThat(routingDataSource.pinReadRoute()).isTrue();
+        write();
+        assertThat(readOnlyRead()).isEqualTo("replica");
+        routingDataSource.unpinReadRoute();
+        assertThat(readOnlyRead()).isEqualTo("primary");
+    }
+    
+    @Test
+    void rejectsAWindowShorterThanTheMaxLag() {
+        assertThatThrownBy(() -> new ReadWriteRoutingDataSource(null, List.of(), Duration.ofSeconds(2), Duration.ofSeconds(5), ""))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("max-lag");
+    }
+    
+    @Test
+    void startsWithAnUnreachableReplicaAndFallsBackToThePrimary() throws SQLException {
+        dataSource = routing(UNREACHABLE_URL, Duration.ofSeconds(5), Duration.ofSeconds(5), "");
+        
+        assertThat(readOnlyRead()).isEqualTo("primary");
+        assertThat(replicaStatus()).isEqualTo("DOWN");
+    }
+    
+    @Test
+    void skipsAReplicaLaggingMoreThanTheMaxLag() throws SQLException {
+        dataSource = routing(REPLICA_URL, Duration.ofSeconds(5), Duration.ofSeconds(5), "SELECT 10000");
+        
+        dataSource.unwrap(ReadWriteRoutingDataSource.class).checkReplicas();
+        
+        assertThat(replicaStatus()).isEqualTo("DOWN");
+        assertThat(readOnlyRead()).isEqualTo("primary");
+    }
+    
+    private DataSource routing(String replicaUrl, Duration readYourWritesWindow, Duration maxLag, String lagQuery) {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(PRIMARY_URL);
+        properties.setUsername("sa");
+        properties.setPassword("");
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("spring.datasource.hikari.connection-timeout", "250");
+        return new DataSourceConfig().dataSource(properties, environment, new SimpleMeterRegistry(),
+            new String[] {replicaUrl}, "sa", "", readYourWritesWindow, maxLag, lagQuery);
+    }
+    
+    private String readOnlyRead() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> currentNode());
+    }
+    
+    private String write() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        return transactionTemplate.execute(status -> {
+            new JdbcTemplate(dataSource).update("UPDATE node SET name = name");
+            return currentNode();
+        });
+    }
+    
+    private String currentNode() {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private String replicaStatus() throws SQLException {
+        Map<String, Object> status = dataSource.unwrap(ReadWriteRoutingDataSource.class).getReplicaStatus();
+        return (String) ((Map<String, Object>) status.get("replica-1")).get("status");
+    }
+}
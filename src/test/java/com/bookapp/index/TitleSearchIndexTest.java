@@ -0,0 +1,51 @@
+package com.bookapp.index;
+
+import com.bookapp.dto.BookResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TitleSearchIndexTest {
+    
+    private final TitleSearchIndex index = new TitleSearchIndex();
+    
+    @BeforeEach
+    void setUp() {
+        index.add(new BookResponseDto(1L, "Dracula's Guest", "en", 900, Set.of()));
+        index.add(new BookResponseDto(2L, "The Memoirs of Sherlock Holmes", "en", 5000, Set.of()));
+        index.add(new BookResponseDto(3L, "Dom  Casmurro", "pt", 1500, Set.of()));
+        index.markReady();
+    }
+    
+    @Test
+    void localMatchRequiresTheSameTitleNotOneContainingIt() {
+        assertThat(index.findLocalMatch("Dracula")).isEmpty();
+        assertThat(index.findLocalMatch("Memoirs of Sherlock")).isEmpty();
+    }
+    
+    @Test
+    void localMatchIgnoresCaseSpacingAndSmallTypos() {
+        assertThat(index.findLocalMatch("dom casmurro")).get().extracting(BookResponseDto::getId).isEqualTo(3L);
+        assertThat(index.findLocalMatch("DRACULA'S GUEST")).get().extracting(BookResponseDto::getId).isEqualTo(1L);
+        assertThat(index.findLocalMatch("The Memoirs of Sherlok Holmes")).get().extracting(BookResponseDto::getId).isEqualTo(2L);
+    }
+    
+    @Test
+    void commonTrigramsDoNotHideOrAddMatches() {
+        for (long id = 100; id < 200; id++) {
+            index.add(new BookResponseDto(id, "The Story of Volume " + id, "en", 1, Set.of()));
+        }
+        index.add(new BookResponseDto(4L, "The Time Machine", "en", 2000, Set.of()));
+        
+        assertThat(index.search("the time machine", 10)).extracting(match -> match.book().getId()).containsExactly(4L);
+        assertThat(index.search("the story of volume 150", 1)).extracting(match -> match.book().getId()).containsExactly(150L);
+    }
+    
+    @Test
+    void searchStillFindsPartialTitles() {
+        assertThat(index.search("dracula", 10)).extracting(match -> match.book().getId()).containsExactly(1L);
+    }
+}
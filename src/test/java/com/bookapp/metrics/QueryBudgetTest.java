@@ -0,0 +1,136 @@
+package com.bookapp.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The list endpoints run under the strict query budget against a catalog larger than the budget,
+ * so a per-row load on any of them fails the test. A probe endpoint issuing one query per row
+ * checks that the overrun becomes an error response rather than a committed 200.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:bookdb-query-budget;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+    "db.query-budget.strict=true",
+    "db.query-budget.max-statements=20"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryBudgetTest {
+    
+    private static final int CATALOG_SIZE = 30;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @TestConfiguration
+    static class Probes {
+        
+        @Bean
+        PerRowQueries perRowQueries(JdbcTemplate jdbcTemplate) {
+            return new PerRowQueries(jdbcTemplate);
+        }
+    }
+    
+    /** Not a @Controller, so component scanning leaves it to the test configuration above. */
+    @RequestMapping("/test/budget")
+    @ResponseBody
+    static class PerRowQueries {
+        
+        private final JdbcTemplate jdbcTemplate;
+        
+        PerRowQueries(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+        
+        @GetMapping("/titles")
+        List<String> titles() {
+            return jdbcTemplate.queryForList("SELECT id FROM books ORDER BY id", Long.class).stream()
+                .map(id -> jdbcTemplate.queryForObject("SELECT title FROM books WHERE id = ?", String.class, id))
+                .toList();
+        }
+        
+        @GetMapping("/export")
+        StreamingResponseBody export() {
+            return out -> {
+                for (String title : titles()) {
+                    out.write((title + "\n").getBytes());
+                }
+            };
+        }
+    }
+    
+    @BeforeEach
+    void seedCatalog() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books", Integer.class) > 0) {
+            return;
+        }
+        for (long id = 1; id <= CATALOG_SIZE; id++) {
+            jdbcTemplate.update("INSERT INTO authors (id, name, birth_year, death_year) VALUES (?, ?, 1800, 1880)",
+                id, "Author " + id);
+            jdbcTemplate.update("INSERT INTO books (id, title, language, download_count) VALUES (?, ?, 'en', ?)",
+                id, "Book " + id, (int) id);
+            jdbcTemplate.update("INSERT INTO book_authors (book_id, author_id) VALUES (?, ?)", id, id);
+        }
+    }
+    
+    @Test
+    void listEndpointsStayWithinTheBudget() throws Exception {
+        mockMvc.perform(get("/api/books").param("limit", String.valueOf(CATALOG_SIZE)))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/books/language/en").param("limit", String.valueOf(CATALOG_SIZE)))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/authors").param("limit", String.valueOf(CATALOG_SIZE)))
+            .andExpect(status().isOk());
+    }
+    
+    @Test
+    void perRowQueriesFailBeforeTheResponseIsCommitted() throws Exception {
+        MvcResult result = mockMvc.perform(get("/test/budget/titles"))
+            .andExpect(status().isInternalServerError())
+            .andExpect(jsonPath("$.message", containsString("more than 20 SQL statements")))
+            .andReturn();
+        
+        RequestMetrics metrics = (RequestMetrics) result.getRequest().getAttribute(RequestMetrics.ATTRIBUTE);
+        assertThat(metrics.isBudgetExceeded()).isTrue();
+        assertThat(metrics.getStatements()).isEqualTo(20);
+    }
+    
+    @Test
+    void streamedResponsesAreCountedWithoutFailing() throws Exception {
+        MvcResult result = mockMvc.perform(get("/test/budget/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk());
+        
+        RequestMetrics metrics = (RequestMetrics) result.getRequest().getAttribute(RequestMetrics.ATTRIBUTE);
+        assertThat(metrics.getStatements()).isEqualTo(CATALOG_SIZE + 1);
+        assertThat(metrics.isBudgetExceeded()).isFalse();
+    }
+}
@@ -0,0 +1,158 @@
+package com.bookapp.repository;
+
+import com.bookapp.util.TextNormalizer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the Flyway history against a PostgreSQL database populated the way ddl-auto left it before
+ * the migrations existed: identity ids and titles or names repeated under another case or
+ * spacing. The cluster uses the C locale, whose ctype lower-cases ASCII letters only, so the keys
+ * must not depend on it. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresMigrationTest {
+    
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+        .withEnv("POSTGRES_INITDB_ARGS", "--locale=C --encoding=UTF8");
+    
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void createLegacyCatalog() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+            POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA public");
+        jdbcTemplate.execute("""
+            CREATE TABLE books (
+                id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                title VARCHAR(255) NOT NULL, language VARCHAR(255), download_count INTEGER)""");
+        jdbcTemplate.execute("""
+            CREATE TABLE authors (
+                id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                name VARCHAR(255) NOT NULL, birth_year INTEGER, death_year INTEGER)""");
+        jdbcTemplate.execute("""
+            CREATE TABLE book_authors (
+                book_id BIGINT NOT NULL REFERENCES books (id),
+                author_id BIGINT NOT NULL REFERENCES authors (id),
+                PRIMARY KEY (book_id, author_id))""");
+        
+        jdbcTemplate.update("INSERT INTO authors (name, birth_year, death_year) VALUES ('Machado de Assis', 1839, 1908)");
+        jdbcTemplate.update("INSERT INTO authors (name, birth_year, death_year) VALUES ('machado  de assis', 1839, 1908)");
+        jdbcTemplate.update("INSERT INTO authors (name, birth_year, death_year) VALUES ('José de Alencar', 1829, 1877)");
+        jdbcTemplate.update("INSERT INTO books (title, language) VALUES ('Dom Casmurro', 'pt')");
+        jdbcTemplate.update("INSERT INTO books (title, language) VALUES ('DOM CASMURRO', 'pt')");
+        jdbcTemplate.update("INSERT INTO books (title, language) VALUES (?, 'pt')", "Dom\r\nCasmurro ");
+        jdbcTemplate.update("INSERT INTO books (title, language) VALUES ('Iracema', 'pt')");
+        jdbcTemplate.update("INSERT INTO books (title, language) VALUES ('Les Misérables', 'fr')");
+        jdbcTemplate.update("INSERT INTO books (title, language) VALUES ('LES MISÉRABLES', 'fr')");
+        jdbcTemplate.update("INSERT INTO books (id, title, language) VALUES (1000, 'Senhora', 'pt')");
+        jdbcTemplate.update("INSERT INTO book_authors VALUES (1, 1), (2, 2), (3, 1), (3, 3), (4, 3), (1000, 3)");
+    }
+    
+    @Test
+    void startsPooledSequencesPastExistingIds() {
+        migrate();
+        
+        // Hibernate's pooled optimizer hands out nextval - 49 .. nextval
+        long bookHi = jdbcTemplate.queryForObject("SELECT nextval('book_id_seq')", Long.class);
+        long authorHi = jdbcTemplate.queryForObject("SELECT nextval('author_id_seq')", Long.class);
+        assertThat(bookHi - 49).isGreaterThan(1000);
+        assertThat(authorHi - 49).isGreaterThan(3);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM information_schema.columns WHERE table_name = 'books' AND column_name = 'id' AND is_identity = 'YES'",
+            Integer.class)).isZero();
+    }
+    
+    @Test
+    void mergesBooksAndAuthorsDifferingOnlyInCaseOrSpacing() {
+        migrate();
+        
+        assertThat(jdbcTemplate.queryForList("SELECT title FROM books ORDER BY id", String.class))
+            .containsExactly("Dom Casmurro", "Iracema", "Les Misérables", "Senhora");
+        assertThat(jdbcTemplate.queryForList("SELECT name FROM authors ORDER BY id", String.class))
+            .containsExactly("Machado de Assis", "José de Alencar");
+        assertThat(jdbcTemplate.queryForList("SELECT author_id FROM book_authors WHERE book_id = 1 ORDER BY author_id", Long.class))
+            .containsExactly(1L, 3L);
+        assertThat(jdbcTemplate.queryForObject("SELECT title_key FROM books WHERE id = 1", String.class))
+            .isEqualTo("dom casmurro");
+        assertThat(jdbcTemplate.queryForObject("SELECT title_key FROM books WHERE id = 5", String.class))
+            .isEqualTo(TextNormalizer.normalize("LES MISÉRABLES"));
+        
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO books (id, title) VALUES (2000, ?)", " dom\tcasmurro"))
+            .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO books (id, title) VALUES (2001, 'les misérables')"))
+            .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO authors (id, name) VALUES (2000, 'JOSÉ DE ALENCAR')"))
+            .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO authors (id, name) VALUES (2001, 'MACHADO DE ASSIS')"))
+            .isInstanceOf(DataIntegrityViolationException.class);
+    }
+    
+    @Test
+    void repositoryQueryShapesUseIndexes() {
+        migrate();
+        Map<String, String> queries = new LinkedHashMap<>();
+        queries.put("findIdsByTitleKeyIn", "SELECT b.id FROM books b WHERE b.title_key IN ('dom casmurro', 'iracema')");
+        queries.put("findAllByNormalizedNameIn",
+            "SELECT a.id, a.name, a.birth_year, a.death_year FROM authors a WHERE a.name_key IN ('machado de assis')");
+        queries.put("findIdsByLanguageAfter", "SELECT b.id FROM books b WHERE b.language = 'pt' AND b.id > 1 ORDER BY b.id LIMIT 50");
+        queries.put("findAuthorsAliveBetween",
+            "SELECT a.id FROM authors a WHERE a.birth_year <= 1850 AND (a.death_year IS NULL OR a.death_year >= 1850) ORDER BY a.id");
+        queries.put("findRowsByIdIn",
+            "SELECT b.id, a.id FROM books b LEFT JOIN book_authors ba ON ba.book_id = b.id "
+                + "LEFT JOIN authors a ON a.id = ba.author_id WHERE b.id IN (1, 4) ORDER BY b.id, a.id");
+        
+        List<String> failures = jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            List<String> scans = new ArrayList<>();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                for (Map.Entry<String, String> query : queries.entrySet()) {
+                    StringBuilder plan = new StringBuilder();
+                    try (ResultSet resultSet = statement.executeQuery("EXPLAIN " + query.getValue())) {
+                        while (resultSet.next()) {
+                            plan.append(resultSet.getString(1)).append('\n');
+                        }
+                    }
+                    if (plan.toString().contains("Seq Scan")) {
+                        scans.add(query.getKey() + ":\n" + plan);
+                    }
+                }
+                statement.execute("RESET enable_seqscan");
+            }
+            return scans;
+        });
+        
+        assertThat(failures).isEmpty();
+    }
+    
+    private void migrate() {
+        Flyway.configure()
+            .dataSource(jdbcTemplate.getDataSource())
+            .locations("classpath:db/migration", "classpath:db/vendor/postgresql")
+            .baselineOnMigrate(true)
+            .baselineVersion("0")
+            .load()
+            .migrate();
+    }
+}
@@ -0,0 +1,206 @@
+package com.bookapp.repository;
+
+import com.bookapp.util.TextNormalizer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs each repository query the API uses against the Flyway schema on H2, captures the SQL
+ * Hibernate actually sends, and checks that EXPLAIN of that SQL, with the same bind values, reads
+ * every table through an index rather than a full scan. Catches both a missing index and a
+ * query rewritten so it no longer matches one (for example by wrapping the column in a function).
+ *
+ * <p>{@code countByLanguage}, the catalog-wide {@code findStamp} counts and the NDJSON export
+ * streams read whole tables on purpose and are not checked. The catalog is seeded once and committed, since H2's ANALYZE commits.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:bookdb-query-plans;DB_CLOSE_DELAY=-1;MODE=PostgreSQL")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RepositoryQueryPlanTest {
+    
+    private static final String MESSY_TITLE = "  The\r\nTime   Machine ";
+    private static final List<QueryInfo> CAPTURED = new CopyOnWriteArrayList<>();
+    private static boolean seeded;
+    
+    @TestConfiguration
+    static class CaptureStatements {
+        
+        @Bean
+        static BeanPostProcessor captureStatementsDataSourceProxy() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                        return bean;
+                    }
+                    return ProxyDataSourceBuilder.create(dataSource)
+                        .listener(new QueryExecutionListener() {
+                            @Override
+                            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                CAPTURED.addAll(queryInfoList);
+                            }
+                            
+                            @Override
+                            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                            }
+                        })
+                        .build();
+                }
+            };
+        }
+    }
+    
+    @Autowired
+    private BookQueryRepository bookQueryRepository;
+    
+    @Autowired
+    private AuthorQueryRepository authorQueryRepository;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void seedCatalog() {
+        if (seeded) {
+            return;
+        }
+        String[] languages = {"en", "pt", "fr", "es", "de"};
+        jdbcTemplate.batchUpdate("INSERT INTO authors (id, name, birth_year, death_year) VALUES (?, ?, ?, ?)",
+            range(1, 200), 50, (statement, id) -> {
+                statement.setLong(1, id);
+                statement.setString(2, "Author " + id);
+                statement.setInt(3, 1400 + id * 2);
+                statement.setInt(4, 1460 + id * 2);
+            });
+        jdbcTemplate.batchUpdate("INSERT INTO books (id, title, language, download_count) VALUES (?, ?, ?, ?)",
+            range(1, 1000), 200, (statement, id) -> {
+                statement.setLong(1, id);
+                statement.setString(2, "Book " + id);
+                statement.setString(3, languages[id % languages.length]);
+                statement.setInt(4, id * 3);
+            });
+        jdbcTemplate.batchUpdate("INSERT INTO book_authors (book_id, author_id) VALUES (?, ?)",
+            range(1, 1000), 200, (statement, id) -> {
+                statement.setLong(1, id);
+                statement.setLong(2, 1 + id % 200);
+            });
+        jdbcTemplate.update("INSERT INTO books (id, title) VALUES (5001, ?)", MESSY_TITLE);
+        jdbcTemplate.execute("ANALYZE");
+        seeded = true;
+    }
+    
+    @Test
+    void bookQueriesUseIndexes() throws SQLException {
+        assertIndexed("BookQueryRepository.findIdsAfter",
+            () -> bookQueryRepository.findIdsAfter(500, PageRequest.of(0, 50)));
+        assertIndexed("BookQueryRepository.findRowsByIdIn",
+            () -> bookQueryRepository.findRowsByIdIn(List.of(1L, 2L, 3L)));
+        assertIndexed("BookQueryRepository.findAllWithAuthorsByIdIn",
+            () -> bookQueryRepository.findAllWithAuthorsByIdIn(List.of(4L, 5L)));
+        assertIndexed("BookQueryRepository.findIdsByTitleKeyIn",
+            () -> bookQueryRepository.findIdsByTitleKeyIn(List.of("book 7", "book 8")));
+        assertIndexed("BookQueryRepository.findIdsByLanguageAfter",
+            () -> bookQueryRepository.findIdsByLanguageAfter("pt", 100, PageRequest.of(0, 50)));
+        assertIndexed("BookQueryRepository.findStampByLanguage",
+            () -> bookQueryRepository.findStampByLanguage("pt"));
+    }
+    
+    @Test
+    void authorQueriesUseIndexes() throws SQLException {
+        assertIndexed("AuthorQueryRepository.findPageAfter",
+            () -> authorQueryRepository.findPageAfter(100, PageRequest.of(0, 50)));
+        assertIndexed("AuthorQueryRepository.findDtoById",
+            () -> authorQueryRepository.findDtoById(7L));
+        assertIndexed("AuthorQueryRepository.findAllByNormalizedNameIn",
+            () -> authorQueryRepository.findAllByNormalizedNameIn(List.of("author 3", "author 4")));
+        assertIndexed("AuthorQueryRepository.findAuthorsAliveBetween",
+            () -> authorQueryRepository.findAuthorsAliveBetween(1500, 1500));
+    }
+    
+    @Test
+    void generatedKeysMatchTextNormalizer() {
+        assertThat(jdbcTemplate.queryForObject("SELECT title_key FROM books WHERE id = 5001", String.class))
+            .isEqualTo(TextNormalizer.normalize(MESSY_TITLE))
+            .isEqualTo("the time machine");
+        assertThat(bookQueryRepository.findIdsByTitleKeyIn(List.of(TextNormalizer.normalize("THE TIME\tMACHINE"))))
+            .containsExactly(5001L);
+        assertThat(authorQueryRepository.findAllByNormalizedNameIn(List.of(TextNormalizer.normalize(" Author  12"))))
+            .hasSize(1);
+    }
+    
+    private void assertIndexed(String query, Runnable invocation) throws SQLException {
+        CAPTURED.clear();
+        invocation.run();
+        List<QueryInfo> statements = new ArrayList<>(CAPTURED);
+        assertThat(statements).as("%s issued no SQL", query).isNotEmpty();
+        
+        try (Connection connection = dataSource.getConnection()) {
+            for (QueryInfo statement : statements) {
+                String plan = explain(connection, statement);
+                assertThat(plan).as("%s plan:%n%s", query, plan).doesNotContain("tableScan");
+            }
+        }
+    }
+    
+    private static String explain(Connection connection, QueryInfo statement) throws SQLException {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.getQuery())) {
+            if (!statement.getParametersList().isEmpty()) {
+                for (ParameterSetOperation operation : statement.getParametersList().get(0)) {
+                    Object[] args = operation.getArgs();
+                    if ("setNull".equals(operation.getMethod().getName())) {
+                        explain.setNull((Integer) args[0], (Integer) args[1]);
+                    } else {
+                        explain.setObject((Integer) args[0], args[1]);
+                    }
+                }
+            }
+            try (ResultSet resultSet = explain.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+                return plan.toString();
+            }
+        }
+    }
+    
+    private static List<Integer> range(int from, int to) {
+        List<Integer> values = new ArrayList<>(to - from + 1);
+        for (int i = from; i <= to; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+}
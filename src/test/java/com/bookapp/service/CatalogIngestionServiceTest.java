@@ -0,0 +1,115 @@
+package com.bookapp.service;
+
+import com.bookapp.model.Book;
+import com.bookapp.support.GutendexStub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogIngestionServiceTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private GutendexStub stub;
+    private final BookServiceEnhanced bookService = mock(BookServiceEnhanced.class);
+    private final List<List<String>> persistedPages = new ArrayList<>();
+    private Path checkpointFile;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        stub = new GutendexStub();
+        checkpointFile = tempDir.resolve("ingestion.checkpoint");
+        when(bookService.saveBooks(any())).thenAnswer(invocation -> {
+            Collection<Book> books = invocation.getArgument(0);
+            persistedPages.add(books.stream().map(Book::getTitle).toList());
+            return Map.of();
+        });
+    }
+    
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+    
+    @Test
+    void crawlsEveryPageInOrderAndClearsTheCheckpoint() throws InterruptedException {
+        stub.respond("/books", 200, GutendexStub.page(stub.getBaseUrl() + "?page=2",
+                GutendexStub.book(1, "Dom Casmurro", "pt", "Assis, Machado de"),
+                GutendexStub.book(2, "Iracema", "pt", "Alencar, José de")))
+            .respond("/books?page=2", 200, GutendexStub.page(null,
+                GutendexStub.book(3, "Dracula", "en", "Stoker, Bram")));
+        CatalogIngestionService ingestion = newService();
+        
+        assertThat(ingestion.start()).isTrue();
+        Map<String, Object> status = awaitFinished(ingestion);
+        
+        assertThat(status.get("state")).isEqualTo(CatalogIngestionService.State.COMPLETED);
+        assertThat(status.get("pagesPersisted")).isEqualTo(2L);
+        assertThat(status.get("booksPersisted")).isEqualTo(3L);
+        assertThat(persistedPages).containsExactly(List.of("Dom Casmurro", "Iracema"), List.of("Dracula"));
+        assertThat(checkpointFile).doesNotExist();
+    }
+    
+    @Test
+    void resumesFromTheCheckpointAfterAFailedPage() throws Exception {
+        String secondPage = stub.getBaseUrl() + "?page=2";
+        stub.respond("/books", 200, GutendexStub.page(secondPage,
+                GutendexStub.book(1, "Dom Casmurro", "pt", "Assis, Machado de")))
+            .respond("/books?page=2", 503, "{}")
+            .respond("/books?page=2", 200, GutendexStub.page(null,
+                GutendexStub.book(3, "Dracula", "en", "Stoker, Bram")));
+        CatalogIngestionService ingestion = newService();
+        
+        ingestion.start();
+        Map<String, Object> failed = awaitFinished(ingestion);
+        
+        assertThat(failed.get("state")).isEqualTo(CatalogIngestionService.State.FAILED);
+        assertThat(failed.get("error")).asString().contains("HTTP 503");
+        assertThat(Files.readString(checkpointFile)).isEqualTo(secondPage);
+        
+        ingestion.start();
+        Map<String, Object> resumed = awaitFinished(ingestion);
+        
+        assertThat(resumed.get("state")).isEqualTo(CatalogIngestionService.State.COMPLETED);
+        assertThat(resumed.get("resumed")).isEqualTo(true);
+        assertThat(stub.countRequests("/books")).isEqualTo(1);
+        assertThat(persistedPages).containsExactly(List.of("Dom Casmurro"), List.of("Dracula"));
+        assertThat(checkpointFile).doesNotExist();
+    }
+    
+    private CatalogIngestionService newService() {
+        return new CatalogIngestionService(bookService, new GutendexPageParser(new ObjectMapper()),
+            new SimpleMeterRegistry(), stub.getBaseUrl(), checkpointFile.toString(), 2, Duration.ofSeconds(5));
+    }
+    
+    private static Map<String, Object> awaitFinished(CatalogIngestionService ingestion) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            Map<String, Object> status = ingestion.getStatus();
+            if (status.get("finishedAt") != null) {
+                return status;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Ingestion did not finish: " + ingestion.getStatus());
+    }
+}
@@ -0,0 +1,103 @@
+package com.bookapp.service;
+
+import com.bookapp.exception.GutendexUnavailableException;
+import com.bookapp.model.Book;
+import com.bookapp.support.GutendexStub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GutendexClientTest {
+    
+    private static final String DOM_CASMURRO = "/books?search=Dom+Casmurro";
+    
+    private GutendexStub stub;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = new GutendexStub();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+    
+    @Test
+    void returnsTheFirstResultPage() {
+        stub.respond(DOM_CASMURRO, 200, GutendexStub.page(null,
+            GutendexStub.book(55752, "Dom Casmurro", "pt", "Assis, Machado de")));
+        
+        List<Book> books = newClient(3, Duration.ofSeconds(2)).searchBooksByTitle("Dom Casmurro");
+        
+        assertThat(books).extracting(Book::getTitle).containsExactly("Dom Casmurro");
+    }
+    
+    @Test
+    void retriesTransientFailures() {
+        stub.respond(DOM_CASMURRO, 503, "{}")
+            .respond(DOM_CASMURRO, 429, "{}")
+            .respond(DOM_CASMURRO, 200, GutendexStub.page(null,
+                GutendexStub.book(55752, "Dom Casmurro", "pt", "Assis, Machado de")));
+        
+        List<Book> books = newClient(3, Duration.ofSeconds(2)).searchBooksByTitle("Dom Casmurro");
+        
+        assertThat(books).hasSize(1);
+        assertThat(stub.countRequests(DOM_CASMURRO)).isEqualTo(3);
+    }
+    
+    @Test
+    void doesNotRetryDefiniteAnswers() {
+        stub.respond(DOM_CASMURRO, 400, "{}");
+        GutendexClient client = newClient(3, Duration.ofSeconds(2));
+        
+        assertThatThrownBy(() -> client.searchBooksByTitle("Dom Casmurro"))
+            .isInstanceOf(GutendexUnavailableException.class)
+            .hasMessageContaining("HTTP 400");
+        assertThat(stub.countRequests(DOM_CASMURRO)).isEqualTo(1);
+    }
+    
+    @Test
+    void givesUpAtTheRequestDeadline() {
+        stub.respond(DOM_CASMURRO, new GutendexStub.Response(200, GutendexStub.page(null), 2000));
+        GutendexClient client = newClient(1, Duration.ofMillis(200));
+        
+        long startedAt = System.nanoTime();
+        assertThatThrownBy(() -> client.searchBooksByTitle("Dom Casmurro"))
+            .isInstanceOf(GutendexUnavailableException.class);
+        
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofMillis(1500));
+    }
+    
+    @Test
+    void opensTheCircuitAfterRepeatedFailuresAndFailsFast() {
+        stub.respond(DOM_CASMURRO, 500, "{}");
+        GutendexClient client = newClient(1, Duration.ofSeconds(2));
+        
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> client.searchBooksByTitle("Dom Casmurro"))
+                .isInstanceOf(GutendexUnavailableException.class);
+        }
+        assertThat(client.getCircuitState()).isEqualTo("OPEN");
+        
+        assertThatThrownBy(() -> client.searchBooksByTitle("Dom Casmurro"))
+            .isInstanceOf(GutendexUnavailableException.class)
+            .hasMessageContaining("circuit is open");
+        assertThat(stub.countRequests(DOM_CASMURRO)).isEqualTo(10);
+    }
+    
+    private GutendexClient newClient(int maxAttempts, Duration requestTimeout) {
+        return new GutendexClient(new GutendexPageParser(new ObjectMapper()), new SimpleMeterRegistry(),
+            stub.getBaseUrl(), Duration.ofSeconds(1), requestTimeout, maxAttempts, Duration.ofMillis(10),
+            4, Duration.ofMillis(100), 50f, Duration.ofSeconds(3), Duration.ofMinutes(1), false);
+    }
+}
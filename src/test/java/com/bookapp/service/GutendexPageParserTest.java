@@ -0,0 +1,99 @@
+package com.bookapp.service;
+
+import com.bookapp.model.Author;
+import com.bookapp.model.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GutendexPageParserTest {
+    
+    private final GutendexPageParser parser = new GutendexPageParser(new ObjectMapper());
+    
+    @Test
+    void readsBooksAuthorsAndNextLink() throws IOException {
+        List<Book> books = new ArrayList<>();
+        String next = parse("""
+            {"count": 2, "next": "https://gutendex.com/books/?page=2", "previous": null, "results": [
+              {"id": 55752, "title": "Dom Casmurro", "authors": [{"name": "Assis, Machado de", "birth_year": 1839, "death_year": 1908}],
+               "subjects": ["Brazilian fiction"], "languages": ["pt", "en"], "download_count": 1500},
+              {"id": 345, "title": "Dracula", "authors": [{"name": "Stoker, Bram", "birth_year": 1847, "death_year": null}],
+               "formats": {"text/html": "https://www.gutenberg.org/ebooks/345.html"}, "languages": ["en"], "download_count": 90000}
+            ]}
+            """, books);
+        
+        assertThat(next).isEqualTo("https://gutendex.com/books/?page=2");
+        assertThat(books).extracting(Book::getTitle).containsExactly("Dom Casmurro", "Dracula");
+        assertThat(books.get(0).getLanguage()).isEqualTo("pt");
+        assertThat(books.get(0).getDownloadCount()).isEqualTo(1500);
+        Author stoker = books.get(1).getAuthors().iterator().next();
+        assertThat(stoker.getName()).isEqualTo("Stoker, Bram");
+        assertThat(stoker.getBirthYear()).isEqualTo(1847);
+        assertThat(stoker.getDeathYear()).isNull();
+    }
+    
+    @Test
+    void nullResultsReadAsAnEmptyPage() throws IOException {
+        List<Book> books = new ArrayList<>();
+        String next = parse("""
+            {"count": 0, "results": null, "next": "https://gutendex.com/books/?page=3"}
+            """, books);
+        
+        assertThat(books).isEmpty();
+        assertThat(next).isEqualTo("https://gutendex.com/books/?page=3");
+    }
+    
+    @Test
+    void nullAuthorsAndLanguagesDoNotDesyncTheFollowingBooks() throws IOException {
+        List<Book> books = new ArrayList<>();
+        String next = parse("""
+            {"results": [
+              {"title": "Anonymous Sagas", "authors": null, "languages": null, "download_count": null},
+              {"title": "Beowulf", "authors": [null, {"name": "Unknown"}], "languages": [null, "en"], "download_count": 12},
+              {"title": "Dracula", "authors": [{"name": "Stoker, Bram"}], "languages": ["en"], "download_count": 90000}
+            ], "next": null}
+            """, books);
+        
+        assertThat(next).isNull();
+        assertThat(books).extracting(Book::getTitle).containsExactly("Anonymous Sagas", "Beowulf", "Dracula");
+        assertThat(books.get(0).getAuthors()).isEmpty();
+        assertThat(books.get(0).getLanguage()).isNull();
+        assertThat(books.get(0).getDownloadCount()).isNull();
+        assertThat(books.get(1).getAuthors()).extracting(Author::getName).containsExactly("Unknown");
+        assertThat(books.get(1).getLanguage()).isEqualTo("en");
+        assertThat(books.get(2).getAuthors()).extracting(Author::getName).containsExactly("Stoker, Bram");
+    }
+    
+    @Test
+    void skipsResultsWithoutATitle() throws IOException {
+        List<Book> books = new ArrayList<>();
+        parse("""
+            {"results": [{"title": null, "authors": []}, {"title": "  "}, {"title": "Iracema"}]}
+            """, books);
+        
+        assertThat(books).extracting(Book::getTitle).containsExactly("Iracema");
+    }
+    
+    @Test
+    void skipsTitlesAndNamesLongerThanTheColumns() throws IOException {
+        String longText = "A".repeat(256);
+        List<Book> books = new ArrayList<>();
+        parse("""
+            {"results": [{"title": "%s"}, {"title": "Iracema", "authors": [{"name": "%s"}, {"name": "Alencar, José de"}]}]}
+            """.formatted(longText, longText), books);
+        
+        assertThat(books).extracting(Book::getTitle).containsExactly("Iracema");
+        assertThat(books.get(0).getAuthors()).extracting(Author::getName).containsExactly("Alencar, José de");
+    }
+    
+    private String parse(String json, List<Book> books) throws IOException {
+        return parser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), books::add);
+    }
+}
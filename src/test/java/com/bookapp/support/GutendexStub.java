@@ -0,0 +1,112 @@
+package com.bookapp.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+/**
+ * Scripted Gutendex stand-in for tests. Responses are queued per request path and query; each
+ * request takes the next one, and the last one keeps being served. Unscripted paths get 404.
+ */
+public class GutendexStub implements AutoCloseable {
+    
+    public record Response(int status, String body, long delayMs) {
+    }
+    
+    private final HttpServer server;
+    private final Map<String, Deque<Response>> responses = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    
+    public GutendexStub() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+    
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/books";
+    }
+    
+    /**
+     * @param pathAndQuery for example {@code /books?page=2}
+     */
+    public GutendexStub respond(String pathAndQuery, int status, String body) {
+        return respond(pathAndQuery, new Response(status, body, 0));
+    }
+    
+    public GutendexStub respond(String pathAndQuery, Response response) {
+        responses.computeIfAbsent(pathAndQuery, key -> new ArrayDeque<>()).add(response);
+        return this;
+    }
+    
+    public List<String> getRequests() {
+        return requests;
+    }
+    
+    public long countRequests(String pathAndQuery) {
+        return requests.stream().filter(pathAndQuery::equals).count();
+    }
+    
+    /**
+     * A Gutendex page body with the given {@code next} link and raw JSON result objects.
+     */
+    public static String page(String next, String... results) {
+        return "{\"count\":" + results.length + ",\"next\":" + (next == null ? "null" : "\"" + next + "\"")
+            + ",\"previous\":null,\"results\":[" + String.join(",", results) + "]}";
+    }
+    
+    public static String book(int id, String title, String language, String author) {
+        return "{\"id\":" + id + ",\"title\":\"" + title + "\",\"authors\":[{\"name\":\"" + author
+            + "\",\"birth_year\":1839,\"death_year\":1908}],\"languages\":[\"" + language
+            + "\"],\"download_count\":" + (id * 10) + "}";
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        String key = exchange.getRequestURI().getRawPath()
+            + (exchange.getRequestURI().getRawQuery() != null ? "?" + exchange.getRequestURI().getRawQuery() : "");
+        requests.add(key);
+        Response response = next(key);
+        if (response.delayMs() > 0) {
+            try {
+                Thread.sleep(response.delayMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        } catch (IOException e) {
+            // the client gave up waiting
+        }
+    }
+    
+    private Response next(String key) {
+        Deque<Response> queue = responses.get(key);
+        if (queue == null) {
+            return new Response(404, "{\"detail\":\"Not found.\"}", 0);
+        }
+        synchronized (queue) {
+            return queue.size() > 1 ? queue.poll() : queue.peek();
+        }
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}